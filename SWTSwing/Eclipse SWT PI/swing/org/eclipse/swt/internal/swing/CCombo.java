@@ -14,6 +14,7 @@ import java.awt.Container;
 import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.Point;
@@ -21,10 +22,10 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
+import java.util.Arrays;
 
-import javax.swing.DefaultComboBoxModel;
+import javax.swing.AbstractListModel;
 import javax.swing.DefaultListCellRenderer;
-import javax.swing.DefaultListModel;
 import javax.swing.ImageIcon;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
@@ -35,8 +36,10 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.JViewport;
 import javax.swing.ListSelectionModel;
+import javax.swing.MutableComboBoxModel;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.plaf.basic.ComboPopup;
 import javax.swing.text.AbstractDocument;
 import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
@@ -47,6 +50,156 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Control;
 
+/**
+ * An array-backed combo model which behaves like the default one, but which can replace all its elements with a single event.
+ * It also keeps track of its widest element, so that the combo does not have to measure all its elements.
+ */
+class CComboModel extends AbstractListModel<Object> implements MutableComboBoxModel<Object> {
+
+	protected Object[] elements = new Object[16];
+	protected int size;
+	protected Object selectedObject;
+
+	protected FontMetrics widestElementFontMetrics;
+	protected Object widestElement;
+	protected int widestElementWidth;
+
+	public int getSize() {
+		return size;
+	}
+
+	public Object getElementAt(int index) {
+		if(index < 0 || index >= size) {
+			return null;
+		}
+		return elements[index];
+	}
+
+	public int getIndexOf(Object anObject) {
+		for(int i=0; i<size; i++) {
+			if(anObject == null? elements[i] == null: anObject.equals(elements[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public Object getSelectedItem() {
+		return selectedObject;
+	}
+
+	public void setSelectedItem(Object anObject) {
+		if(selectedObject == null? anObject != null: !selectedObject.equals(anObject)) {
+			selectedObject = anObject;
+			fireContentsChanged(this, -1, -1);
+		}
+	}
+
+	public void addElement(Object anObject) {
+		insertElement(anObject, size);
+		fireIntervalAdded(this, size - 1, size - 1);
+		if(size == 1 && selectedObject == null && anObject != null) {
+			setSelectedItem(anObject);
+		}
+	}
+
+	public void insertElementAt(Object anObject, int index) {
+		if(index < 0 || index > size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		insertElement(anObject, index);
+		fireIntervalAdded(this, index, index);
+	}
+
+	protected void insertElement(Object anObject, int index) {
+		if(size == elements.length) {
+			elements = Arrays.copyOf(elements, size * 2);
+		}
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = anObject;
+		size++;
+		if(widestElementFontMetrics != null) {
+			int width = widestElementFontMetrics.stringWidth(String.valueOf(anObject));
+			if(width > widestElementWidth) {
+				widestElement = anObject;
+				widestElementWidth = width;
+			}
+		}
+	}
+
+	public void removeElementAt(int index) {
+		if(index < 0 || index >= size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		Object element = elements[index];
+		if(element == selectedObject) {
+			if(index == 0) {
+				setSelectedItem(size == 1? null: elements[1]);
+			} else {
+				setSelectedItem(elements[index - 1]);
+			}
+		}
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		elements[--size] = null;
+		if(element == widestElement) {
+			widestElementFontMetrics = null;
+		}
+		fireIntervalRemoved(this, index, index);
+	}
+
+	public void removeElement(Object anObject) {
+		int index = getIndexOf(anObject);
+		if(index != -1) {
+			removeElementAt(index);
+		}
+	}
+
+	public void removeAllElements() {
+		int oldSize = size;
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+		selectedObject = null;
+		widestElementFontMetrics = null;
+		if(oldSize > 0) {
+			fireIntervalRemoved(this, 0, oldSize - 1);
+		}
+	}
+
+	/**
+	 * Replace all the elements with the given ones and select the first one, firing a single contents changed event.
+	 */
+	public void setElements(Object[] objects) {
+		int oldSize = size;
+		elements = Arrays.copyOf(objects, Math.max(16, objects.length), Object[].class);
+		size = objects.length;
+		selectedObject = size == 0? null: elements[0];
+		widestElementFontMetrics = null;
+		if(oldSize > 0 || size > 0) {
+			fireContentsChanged(this, 0, Math.max(oldSize, size) - 1);
+		}
+	}
+
+	/**
+	 * @return the element whose text is the widest with the font of these font metrics, or null if the model is empty.
+	 */
+	public Object getWidestElement(FontMetrics fontMetrics) {
+		if(widestElementFontMetrics == null || !fontMetrics.getFont().equals(widestElementFontMetrics.getFont())) {
+			widestElement = null;
+			widestElementWidth = -1;
+			for(int i=0; i<size; i++) {
+				int width = fontMetrics.stringWidth(String.valueOf(elements[i]));
+				if(width > widestElementWidth) {
+					widestElement = elements[i];
+					widestElementWidth = width;
+				}
+			}
+			widestElementFontMetrics = fontMetrics;
+		}
+		return widestElement;
+	}
+
+}
+
 class CComboSimple extends JPanel implements CCombo {
 	
 	protected Combo handle;
@@ -110,7 +263,7 @@ class CComboSimple extends JPanel implements CCombo {
 		userAttributeHandler = new UserAttributeHandler(textField);
 		add(textField, BorderLayout.NORTH);
 		scrollPane = new JScrollPane();
-		list = new JList<Object>(new DefaultListModel<>()) {
+		list = new JList<Object>(new CComboModel()) {
 			public Dimension getPreferredScrollableViewportSize() {
 				Dimension preferredSize = getPreferredSize();
 				preferredSize.width += scrollPane.getVerticalScrollBar().getPreferredSize().width;
@@ -244,7 +397,7 @@ class CComboSimple extends JPanel implements CCombo {
 	}
 
 	public void addItem(Object o) {
-		((DefaultListModel<Object>)list.getModel()).addElement(o);
+		((CComboModel)list.getModel()).addElement(o);
 	}
 
 	public Object getItemAt(int index) {
@@ -252,15 +405,21 @@ class CComboSimple extends JPanel implements CCombo {
 	}
 
 	public void removeItemAt(int index) {
-		((DefaultListModel<Object>)list.getModel()).remove(index);
+		((CComboModel)list.getModel()).removeElementAt(index);
 	}
 
 	public void removeAllItems() {
-		((DefaultListModel<Object>)list.getModel()).removeAllElements();
+		((CComboModel)list.getModel()).removeAllElements();
 	}
 
 	public void insertElementAt(Object o, int index) {
-		((DefaultListModel<Object>)list.getModel()).add(index, o);
+		((CComboModel)list.getModel()).insertElementAt(o, index);
+	}
+
+	public void setItems(Object[] items) {
+		// The selection cannot follow a contents change.
+		list.clearSelection();
+		((CComboModel)list.getModel()).setElements(items);
 	}
 
 	public int getItemCount() {
@@ -381,6 +540,7 @@ class CComboImplementation extends JComboBox<Object> implements CCombo {
 	}
 	
 	public CComboImplementation(Combo combo, int style) {
+		super(new CComboModel());
 		this.handle = combo;
 		userAttributeHandler = new UserAttributeHandler(this);
 		setLightWeightPopupEnabled(Utils.isLightweightPopups());
@@ -458,7 +618,41 @@ class CComboImplementation extends JComboBox<Object> implements CCombo {
 	}
 
 	public void insertElementAt(Object anObject, int index) {
-		((DefaultComboBoxModel<Object>)getModel()).insertElementAt(anObject, index);
+		((CComboModel)getModel()).insertElementAt(anObject, index);
+	}
+
+	public void removeAllItems() {
+		// The super implementation only removes all the elements at once for a DefaultComboBoxModel.
+		((CComboModel)getModel()).removeAllElements();
+		selectedItemReminder = null;
+		if(isEditable()) {
+			editor.setItem(null);
+		}
+	}
+
+	public void setItems(Object[] items) {
+		((CComboModel)getModel()).setElements(items);
+	}
+
+	public Object getPrototypeDisplayValue() {
+		Object prototypeDisplayValue = super.getPrototypeDisplayValue();
+		if(prototypeDisplayValue != null) {
+			return prototypeDisplayValue;
+		}
+		// The UI measures the prototype instead of every item.
+		return ((CComboModel)getModel()).getWidestElement(getFontMetrics(getFont()));
+	}
+
+	public void firePopupMenuWillBecomeVisible() {
+		// The popup list is sized from the widest item only when it is about to be shown.
+		Object popup = getUI().getAccessibleChild(this, 0);
+		if(popup instanceof ComboPopup) {
+			Object prototypeDisplayValue = getPrototypeDisplayValue();
+			if(prototypeDisplayValue != null) {
+				((ComboPopup)popup).getList().setPrototypeCellValue(prototypeDisplayValue);
+			}
+		}
+		super.firePopupMenuWillBecomeVisible();
 	}
 
 	public String getEditorText() {
@@ -600,6 +794,11 @@ public interface CCombo extends CComposite {
 
 	public void removeAllItems();
 
+	/**
+	 * Replace all the items with the given ones, firing a single model event.
+	 */
+	public void setItems(Object[] items);
+
 	public void insertElementAt(Object anObject, int index);
 
 	public int getItemCount();
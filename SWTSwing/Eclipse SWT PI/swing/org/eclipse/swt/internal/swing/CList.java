@@ -18,10 +18,12 @@ import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 
+import javax.swing.AbstractListModel;
 import javax.swing.DefaultListCellRenderer;
-import javax.swing.DefaultListModel;
+import javax.swing.DefaultListSelectionModel;
 import javax.swing.ImageIcon;
 import javax.swing.JList;
 import javax.swing.JScrollPane;
@@ -37,6 +39,322 @@ import org.eclipse.swt.widgets.List;
 
 class CListImplementation extends JScrollPane implements CList {
 
+	/**
+	 * An array-backed list model which holds back its events during a bulk change, and fires a single one at the end.
+	 * On large lists, it builds a hash index of its elements when it is searched several times without being modified.
+	 */
+	protected static class CListModel extends AbstractListModel<Object> {
+
+		protected static final int INDEX_MIN_SIZE = 1024;
+
+		protected Object[] elements = new Object[16];
+		protected int size;
+		protected HashMap<Object, int[]> indexMap;
+		protected int linearSearchCount;
+		protected ListSelectionModel selectionModel;
+
+		public int getSize() {
+			return size;
+		}
+
+		public Object getElementAt(int index) {
+			if(index >= size) {
+				throw new ArrayIndexOutOfBoundsException(index + " >= " + size);
+			}
+			return elements[index];
+		}
+
+		public void addElement(Object element) {
+			if(size == elements.length) {
+				elements = Arrays.copyOf(elements, size * 2);
+			}
+			elements[size] = element;
+			if(indexMap != null) {
+				int[] indices = indexMap.get(element);
+				if(indices == null) {
+					indices = new int[] {size};
+				} else {
+					indices = Arrays.copyOf(indices, indices.length + 1);
+					indices[indices.length - 1] = size;
+				}
+				indexMap.put(element, indices);
+			}
+			size++;
+			fireIntervalAdded(this, size - 1, size - 1);
+		}
+
+		public void insertElementAt(Object element, int index) {
+			if(index < 0 || index > size) {
+				throw new ArrayIndexOutOfBoundsException(index + " > " + size);
+			}
+			if(size == elements.length) {
+				elements = Arrays.copyOf(elements, size * 2);
+			}
+			System.arraycopy(elements, index, elements, index + 1, size - index);
+			elements[index] = element;
+			size++;
+			clearIndex();
+			fireIntervalAdded(this, index, index);
+		}
+
+		public void setElementAt(Object element, int index) {
+			if(index < 0 || index >= size) {
+				throw new ArrayIndexOutOfBoundsException(index + " >= " + size);
+			}
+			elements[index] = element;
+			clearIndex();
+			fireContentsChanged(this, index, index);
+		}
+
+		public void removeElementAt(int index) {
+			removeRange(index, index);
+		}
+
+		/**
+		 * Remove the elements from fromIndex to toIndex, inclusive.
+		 */
+		public void removeRange(int fromIndex, int toIndex) {
+			if(fromIndex < 0 || fromIndex > toIndex || toIndex >= size) {
+				throw new ArrayIndexOutOfBoundsException(fromIndex + ", " + toIndex);
+			}
+			System.arraycopy(elements, toIndex + 1, elements, fromIndex, size - toIndex - 1);
+			int oldSize = size;
+			size -= toIndex - fromIndex + 1;
+			Arrays.fill(elements, size, oldSize, null);
+			clearIndex();
+			fireIntervalRemoved(this, fromIndex, toIndex);
+		}
+
+		public void removeAllElements() {
+			if(size > 0) {
+				removeRange(0, size - 1);
+			}
+		}
+
+		/**
+		 * Replace all the elements with the given ones, firing a single contents changed event.
+		 */
+		public void setElements(Object[] objects) {
+			int oldSize = size;
+			elements = Arrays.copyOf(objects, Math.max(16, objects.length), Object[].class);
+			size = objects.length;
+			clearIndex();
+			if(oldSize > 0 || size > 0) {
+				fireContentsChanged(this, 0, Math.max(oldSize, size) - 1);
+			}
+		}
+
+		public void copyInto(Object[] array) {
+			System.arraycopy(elements, 0, array, 0, size);
+		}
+
+		public int indexOf(Object element, int index) {
+			if(index < 0) {
+				index = 0;
+			}
+			if(indexMap == null && size >= INDEX_MIN_SIZE && ++linearSearchCount > 1) {
+				// Only index lists which are searched several times between modifications.
+				indexMap = new HashMap<>(size * 4 / 3 + 1);
+				for(int i=size-1; i>=0; i--) {
+					int[] indices = indexMap.get(elements[i]);
+					if(indices == null) {
+						indexMap.put(elements[i], new int[] {i});
+					} else {
+						int[] newIndices = new int[indices.length + 1];
+						newIndices[0] = i;
+						System.arraycopy(indices, 0, newIndices, 1, indices.length);
+						indexMap.put(elements[i], newIndices);
+					}
+				}
+			}
+			if(indexMap != null) {
+				int[] indices = indexMap.get(element);
+				if(indices == null) {
+					return -1;
+				}
+				int i = Arrays.binarySearch(indices, index);
+				if(i < 0) {
+					i = -i - 1;
+				}
+				return i < indices.length? indices[i]: -1;
+			}
+			for(int i=index; i<size; i++) {
+				if(element == null? elements[i] == null: element.equals(elements[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		protected void clearIndex() {
+			indexMap = null;
+			linearSearchCount = 0;
+		}
+
+		protected static final int BULK_CHANGE_NONE = 0;
+		protected static final int BULK_CHANGE_INSERT = 1;
+		protected static final int BULK_CHANGE_DELETE = 2;
+		protected static final int BULK_CHANGE_UPDATE = 3;
+		protected static final int BULK_CHANGE_MIXED = 4;
+
+		protected int bulkChangeCount;
+		protected int bulkChangeType;
+		protected int bulkChangeFirstIndex;
+		protected int bulkChangeLastIndex;
+
+		public void beginBulkChange() {
+			if(bulkChangeCount++ == 0) {
+				bulkChangeType = BULK_CHANGE_NONE;
+			}
+		}
+
+		public void endBulkChange() {
+			if(bulkChangeCount == 0 || --bulkChangeCount > 0) {
+				return;
+			}
+			switch(bulkChangeType) {
+				case BULK_CHANGE_INSERT:
+					super.fireIntervalAdded(this, bulkChangeFirstIndex, bulkChangeLastIndex);
+					break;
+				case BULK_CHANGE_DELETE:
+					super.fireIntervalRemoved(this, bulkChangeFirstIndex, bulkChangeLastIndex);
+					break;
+				case BULK_CHANGE_UPDATE:
+					super.fireContentsChanged(this, bulkChangeFirstIndex, bulkChangeLastIndex);
+					break;
+				case BULK_CHANGE_MIXED:
+					super.fireContentsChanged(this, 0, Math.max(0, getSize() - 1));
+					break;
+			}
+			bulkChangeType = BULK_CHANGE_NONE;
+		}
+
+		@Override
+		protected void fireIntervalAdded(Object source, int index0, int index1) {
+			if(bulkChangeCount == 0) {
+				super.fireIntervalAdded(source, index0, index1);
+				return;
+			}
+			// The list only learns about the change at the end, so the selection has to follow it now.
+			if(selectionModel != null) {
+				selectionModel.insertIndexInterval(index0, index1 - index0 + 1, true);
+			}
+			switch(bulkChangeType) {
+				case BULK_CHANGE_NONE:
+					bulkChangeType = BULK_CHANGE_INSERT;
+					bulkChangeFirstIndex = index0;
+					bulkChangeLastIndex = index1;
+					break;
+				case BULK_CHANGE_INSERT:
+					if(bulkChangeFirstIndex <= index0 && index0 <= bulkChangeLastIndex + 1) {
+						bulkChangeLastIndex += index1 - index0 + 1;
+					} else {
+						bulkChangeType = BULK_CHANGE_MIXED;
+					}
+					break;
+				default:
+					bulkChangeType = BULK_CHANGE_MIXED;
+					break;
+			}
+		}
+
+		@Override
+		protected void fireIntervalRemoved(Object source, int index0, int index1) {
+			if(bulkChangeCount == 0) {
+				super.fireIntervalRemoved(source, index0, index1);
+				return;
+			}
+			if(selectionModel != null) {
+				selectionModel.removeIndexInterval(index0, index1);
+			}
+			switch(bulkChangeType) {
+				case BULK_CHANGE_NONE:
+					bulkChangeType = BULK_CHANGE_DELETE;
+					bulkChangeFirstIndex = index0;
+					bulkChangeLastIndex = index1;
+					break;
+				case BULK_CHANGE_DELETE:
+					if(index1 == bulkChangeFirstIndex - 1) {
+						bulkChangeFirstIndex = index0;
+					} else if(index0 == bulkChangeFirstIndex) {
+						bulkChangeLastIndex += index1 - index0 + 1;
+					} else {
+						bulkChangeType = BULK_CHANGE_MIXED;
+					}
+					break;
+				default:
+					bulkChangeType = BULK_CHANGE_MIXED;
+					break;
+			}
+		}
+
+		@Override
+		protected void fireContentsChanged(Object source, int index0, int index1) {
+			if(bulkChangeCount == 0) {
+				super.fireContentsChanged(source, index0, index1);
+				return;
+			}
+			switch(bulkChangeType) {
+				case BULK_CHANGE_NONE:
+					bulkChangeType = BULK_CHANGE_UPDATE;
+					bulkChangeFirstIndex = index0;
+					bulkChangeLastIndex = index1;
+					break;
+				case BULK_CHANGE_INSERT:
+					// The inserted items are not known yet, so they do not need to be updated.
+					if(index0 < bulkChangeFirstIndex || index1 > bulkChangeLastIndex) {
+						bulkChangeType = BULK_CHANGE_MIXED;
+					}
+					break;
+				case BULK_CHANGE_UPDATE:
+					bulkChangeFirstIndex = Math.min(bulkChangeFirstIndex, index0);
+					bulkChangeLastIndex = Math.max(bulkChangeLastIndex, index1);
+					break;
+				default:
+					bulkChangeType = BULK_CHANGE_MIXED;
+					break;
+			}
+		}
+
+	}
+
+	/**
+	 * A selection model which can hold back its events during a bulk change, and fire a single one at the end.
+	 */
+	protected static class CListSelectionModel extends DefaultListSelectionModel {
+
+		protected int bulkChangeCount;
+		protected int bulkChangeFirstIndex;
+		protected int bulkChangeLastIndex;
+
+		public void beginBulkChange() {
+			if(bulkChangeCount++ == 0) {
+				bulkChangeFirstIndex = Integer.MAX_VALUE;
+				bulkChangeLastIndex = -1;
+			}
+		}
+
+		public void endBulkChange() {
+			if(bulkChangeCount == 0 || --bulkChangeCount > 0) {
+				return;
+			}
+			if(bulkChangeFirstIndex <= bulkChangeLastIndex) {
+				super.fireValueChanged(bulkChangeFirstIndex, bulkChangeLastIndex, getValueIsAdjusting());
+			}
+		}
+
+		@Override
+		protected void fireValueChanged(int firstIndex, int lastIndex, boolean isAdjusting) {
+			if(bulkChangeCount == 0) {
+				super.fireValueChanged(firstIndex, lastIndex, isAdjusting);
+				return;
+			}
+			bulkChangeFirstIndex = Math.min(bulkChangeFirstIndex, firstIndex);
+			bulkChangeLastIndex = Math.max(bulkChangeLastIndex, lastIndex);
+		}
+
+	}
+
 	protected List handle;
 	protected JList<Object> list;
 
@@ -56,7 +374,7 @@ class CListImplementation extends JScrollPane implements CList {
 	
 	public CListImplementation(List list, int style) {
 		this.handle = list;
-		this.list = new JList<Object>(new DefaultListModel<>()) {
+		this.list = new JList<Object>(new CListModel()) {
 			public Color getBackground() {
 				return CListImplementation.this != null && userAttributeHandler != null && userAttributeHandler.background != null? userAttributeHandler.background: super.getBackground();
 			}
@@ -76,6 +394,9 @@ class CListImplementation extends JScrollPane implements CList {
 				return backgroundImageIcon == null && super.isOpaque();
 			}
 		};
+		CListSelectionModel selectionModel = new CListSelectionModel();
+		this.list.setSelectionModel(selectionModel);
+		((CListModel)this.list.getModel()).selectionModel = selectionModel;
 		this.list.setCellRenderer(new DefaultListCellRenderer() {
 			public boolean isOpaque() {
 				return CListImplementation.this.list.isOpaque() && super.isOpaque();
@@ -174,23 +495,23 @@ class CListImplementation extends JScrollPane implements CList {
 	}
 
 	public void addElement(Object obj) {
-		((DefaultListModel<Object>)list.getModel()).addElement(obj);
+		((CListModel)list.getModel()).addElement(obj);
 	}
 
 	public void insertElementAt(Object obj, int index) {
-		((DefaultListModel<Object>)list.getModel()).insertElementAt(obj, index);
+		((CListModel)list.getModel()).insertElementAt(obj, index);
 	}
 
 	public void removeElementAt(int index) {
-		((DefaultListModel<Object>)list.getModel()).removeElementAt(index);
+		((CListModel)list.getModel()).removeElementAt(index);
 	}
 
 	public void removeRange(int fromIndex, int toIndex) {
-		((DefaultListModel<Object>)list.getModel()).removeRange(fromIndex, toIndex);
+		((CListModel)list.getModel()).removeRange(fromIndex, toIndex);
 	}
 
 	public void removeAllElements() {
-		((DefaultListModel<Object>)list.getModel()).removeAllElements();
+		((CListModel)list.getModel()).removeAllElements();
 	}
 
 	public Object getElementAt(int index) {
@@ -198,19 +519,59 @@ class CListImplementation extends JScrollPane implements CList {
 	}
 
 	public void setElementAt(Object obj, int index) {
-		((DefaultListModel<Object>)list.getModel()).setElementAt(obj, index);
+		((CListModel)list.getModel()).setElementAt(obj, index);
 	}
 
 	public void setElements(Object[] objects) {
-		removeAllElements();
-		DefaultListModel<Object> model = ((DefaultListModel<Object>)list.getModel());
-		for(int i=0; i<objects.length; i++) {
-			model.addElement(objects[i]);
+		// The selection cannot follow a contents change.
+		isAdjustingSelection = true;
+		CListSelectionModel selectionModel = (CListSelectionModel)list.getSelectionModel();
+		selectionModel.beginBulkChange();
+		selectionModel.clearSelection();
+		selectionModel.setAnchorSelectionIndex(-1);
+		selectionModel.setLeadSelectionIndex(-1);
+		selectionModel.endBulkChange();
+		isAdjustingSelection = false;
+		((CListModel)list.getModel()).setElements(objects);
+	}
+
+	public void copyInto(Object[] array) {
+		((CListModel)list.getModel()).copyInto(array);
+	}
+
+	public void beginBulkChange() {
+		CListModel model = (CListModel)list.getModel();
+		if(model.bulkChangeCount == 0) {
+			// The selection follows each change during the bulk change, with a single event at the end.
+			((CListSelectionModel)list.getSelectionModel()).beginBulkChange();
+		}
+		model.beginBulkChange();
+	}
+
+	public void endBulkChange() {
+		CListModel model = (CListModel)list.getModel();
+		if(model.bulkChangeCount != 1) {
+			model.endBulkChange();
+			return;
+		}
+		CListSelectionModel selectionModel = (CListSelectionModel)list.getSelectionModel();
+		boolean isAdjustingSelection = this.isAdjustingSelection;
+		this.isAdjustingSelection = true;
+		try {
+			// The selection already follows the changes, so it must not move again when the list gets the event.
+			DefaultListSelectionModel selection = (DefaultListSelectionModel)selectionModel.clone();
+			model.endBulkChange();
+			Utils.copySelection(selection, selectionModel);
+		} catch(CloneNotSupportedException e) {
+			model.endBulkChange();
+		} finally {
+			selectionModel.endBulkChange();
+			this.isAdjustingSelection = isAdjustingSelection;
 		}
 	}
 
 	public int indexOf(Object obj, int index) {
-		return ((DefaultListModel<Object>)list.getModel()).indexOf(obj, index);
+		return ((CListModel)list.getModel()).indexOf(obj, index);
 	}
 
 	public int getItemCount() {
@@ -226,22 +587,7 @@ class CListImplementation extends JScrollPane implements CList {
 	}
 
 	public int[] getSelectionIndices() {
-		int min = getMinSelectionIndex();
-		if(min == -1) {
-			return new int[0];
-		}
-		int max = getMaxSelectionIndex();
-		ArrayList<Integer> list = new ArrayList<>(max - min + 1);
-		for(int i=min; i<=max; i++) {
-			if(isSelectedIndex(i)) {
-				list.add(new Integer(i));
-			}
-		}
-		int[] selectionIndices = new int[list.size()];
-		for(int i=0; i<list.size(); i++) {
-			selectionIndices[i] = list.get(i).intValue();
-		}
-		return selectionIndices;
+		return list.getSelectedIndices();
 	}
 
 	public boolean isSelectedIndex(int index) {
@@ -249,12 +595,66 @@ class CListImplementation extends JScrollPane implements CList {
 	}
 
 	public void setSelectedElements(Object[] elements) {
-		DefaultListModel<Object> listModel = ((DefaultListModel<Object>)list.getModel());
+		CListModel listModel = (CListModel)list.getModel();
+		int[] indices = new int[elements.length];
+		int count = 0;
 		for(int i=0; i<elements.length; i++) {
-			int index = listModel.indexOf(elements[i]);
-			if(index >= 0) {
-				list.setSelectedIndex(index);
+			// Select every occurrence of the element, not just the first one.
+			for(int index=listModel.indexOf(elements[i], 0); index >= 0; index=listModel.indexOf(elements[i], index + 1)) {
+				if(count == indices.length) {
+					indices = Arrays.copyOf(indices, Math.max(16, count * 2));
+				}
+				indices[count++] = index;
+			}
+		}
+		list.clearSelection();
+		addSelectionIndices(count == indices.length? indices: Arrays.copyOf(indices, count));
+	}
+
+	public void addSelectionIndices(int[] indices) {
+		changeSelectionIndices(indices, true);
+	}
+
+	public void removeSelectionIndices(int[] indices) {
+		changeSelectionIndices(indices, false);
+	}
+
+	/**
+	 * Select or deselect the given indices as runs of consecutive indices, firing a single selection event.
+	 * The indices that are out of range are ignored.
+	 */
+	protected void changeSelectionIndices(int[] indices, boolean isSelected) {
+		int itemCount = getItemCount();
+		int[] sortedIndices = indices.clone();
+		Arrays.sort(sortedIndices);
+		CListSelectionModel selectionModel = (CListSelectionModel)list.getSelectionModel();
+		selectionModel.beginBulkChange();
+		try {
+			int i = 0;
+			while(i < sortedIndices.length && sortedIndices[i] < 0) {
+				i++;
+			}
+			while(i < sortedIndices.length && sortedIndices[i] < itemCount) {
+				int start = sortedIndices[i];
+				int end = start;
+				while(++i < sortedIndices.length && sortedIndices[i] <= end + 1 && sortedIndices[i] < itemCount) {
+					end = sortedIndices[i];
+				}
+				if(isSelected) {
+					selectionModel.addSelectionInterval(start, end);
+				} else {
+					selectionModel.removeSelectionInterval(start, end);
+				}
 			}
+			if(isSelected && indices.length > 0) {
+				// The last index of the caller is the lead, as when selecting the indices one by one.
+				int lastIndex = indices[indices.length - 1];
+				if(lastIndex >= 0 && lastIndex < itemCount) {
+					selectionModel.addSelectionInterval(lastIndex, lastIndex);
+				}
+			}
+		} finally {
+			selectionModel.endBulkChange();
 		}
 	}
 
@@ -358,8 +758,24 @@ public interface CList extends CScrollable {
 
 	public void setElementAt(Object obj, int index);
 
+	/**
+	 * Replace all the elements with the given ones, firing a single model event. The selection is cleared.
+	 */
 	public void setElements(Object[] objects);
 
+	/**
+	 * Copy the elements into the given array, which must be large enough.
+	 */
+	public void copyInto(Object[] array);
+
+	/**
+	 * Start a bulk change: the element additions and removals that follow do not fire any list model event,
+	 * until the matching call to endBulkChange() which fires a single event for all of them. Bulk changes can be nested.
+	 */
+	public void beginBulkChange();
+
+	public void endBulkChange();
+
 	public int indexOf(Object obj, int index);
 
 	public int getItemCount();
@@ -372,8 +788,18 @@ public interface CList extends CScrollable {
 
 	public boolean isSelectedIndex(int index);
 
+	/**
+	 * Select every occurrence of the given elements, firing a single selection event.
+	 */
 	public void setSelectedElements(Object[] elements);
 
+	/**
+	 * Select the given indices, firing a single selection event. The indices that are out of range are ignored.
+	 */
+	public void addSelectionIndices(int[] indices);
+
+	public void removeSelectionIndices(int[] indices);
+
 	public void addSelectionInterval(int index0, int index1);
 
 	public void setSelectionInterval(int index0, int index1);
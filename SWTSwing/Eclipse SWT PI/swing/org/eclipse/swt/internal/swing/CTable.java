@@ -61,6 +61,7 @@ class CTableImplementation extends JScrollPane implements CTable {
 	protected Table handle;
 	protected JTable table;
 	protected boolean isCheckType;
+	protected boolean isVirtualType;
 
 	public Container getSwingComponent() {
 		return table;
@@ -82,6 +83,16 @@ class CTableImplementation extends JScrollPane implements CTable {
 			add(component, BorderLayout.CENTER);
 			addNotify();
 		}
+		public void setComponent(Component component) {
+			// The cell renderer pane takes the component when it paints the other columns, so it may need to be added back.
+			if(this.component != component || component.getParent() != this) {
+				if(this.component != null && this.component.getParent() == this) {
+					remove(this.component);
+				}
+				this.component = component;
+				add(component, BorderLayout.CENTER);
+			}
+		}
 		public JStateCheckBox getStateCheckBox() {
 			return checkBox;
 		}
@@ -179,11 +190,8 @@ class CTableImplementation extends JScrollPane implements CTable {
 				public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
 					if(value instanceof CTableItem.TableItemObject) {
 						tableItemObject = (CTableItem.TableItemObject)value;
-						if(paintEventBlockedCount == 0 && row >= 0) {
-							CellPaintEvent event = new CellPaintEvent(table, CellPaintEvent.ERASE_TYPE);
-							event.row = row;
-							event.column = column;
-							event.tableItem = tableItemObject.getTableItem();
+						if(paintEventBlockedCount == 0 && row >= 0 && handle.isListening(SWT.EraseItem)) {
+							CellPaintEvent event = acquireCellPaintEvent(CellPaintEvent.ERASE_TYPE, row, column, tableItemObject.getTableItem());
 							event.ignoreDrawSelection = !isSelected;
 							event.ignoreDrawFocused = !hasFocus;
 							handle.processEvent(event);
@@ -193,6 +201,12 @@ class CTableImplementation extends JScrollPane implements CTable {
 							ignoreDrawFocused = event.ignoreDrawFocused;
 							isSelected = !event.ignoreDrawSelection;
 							hasFocus = !event.ignoreDrawFocused;
+							releaseCellPaintEvent(event);
+						} else {
+							ignoreDrawForeground = false;
+							ignoreDrawBackground = false;
+							ignoreDrawSelection = !isSelected;
+							ignoreDrawFocused = !hasFocus;
 						}
 						this.row = row;
 						this.column = column;
@@ -289,12 +303,50 @@ class CTableImplementation extends JScrollPane implements CTable {
 					if(!isCheckType || column != table.convertColumnIndexToView(0)) {
 						return c;
 					}
-					CheckBoxCellRenderer checkBoxCellRenderer = new CheckBoxCellRenderer(c);
-					if(tableItemObject != null) {
-						checkBoxCellRenderer.getStateCheckBox().setSelected(tableItemObject.isChecked());
+					if(checkBoxCellRenderer == null) {
+						checkBoxCellRenderer = new CheckBoxCellRenderer(c);
+						rendererAllocationCount++;
+					} else {
+						checkBoxCellRenderer.setComponent(c);
 					}
+					checkBoxCellRenderer.getStateCheckBox().setSelected(tableItemObject != null && tableItemObject.isChecked());
 					return checkBoxCellRenderer;
 				}
+				protected CheckBoxCellRenderer checkBoxCellRenderer;
+				protected CellPaintEvent cellPaintEvent;
+				protected boolean isCellPaintEventInUse;
+				protected CellPaintEvent acquireCellPaintEvent(int type, int row, int column, CTableItem tableItem) {
+					CellPaintEvent event;
+					// A listener may trigger a nested rendering, in which case the shared event is still in use.
+					if(isCellPaintEventInUse || cellPaintEvent == null) {
+						event = new CellPaintEvent(table, type);
+						rendererAllocationCount++;
+						if(cellPaintEvent == null) {
+							cellPaintEvent = event;
+						}
+					} else {
+						event = cellPaintEvent;
+					}
+					if(event == cellPaintEvent) {
+						isCellPaintEventInUse = true;
+					}
+					event.type = type;
+					event.row = row;
+					event.column = column;
+					event.tableItem = tableItem;
+					event.ignoreDrawForeground = false;
+					event.ignoreDrawBackground = false;
+					event.ignoreDrawSelection = false;
+					event.ignoreDrawFocused = false;
+					event.rowHeight = 0;
+					return event;
+				}
+				protected void releaseCellPaintEvent(CellPaintEvent event) {
+					if(event == cellPaintEvent) {
+						event.tableItem = null;
+						isCellPaintEventInUse = false;
+					}
+				}
 				protected CTableItem.TableItemObject tableItemObject;
 				protected int row;
 				protected int column;
@@ -322,26 +374,22 @@ class CTableImplementation extends JScrollPane implements CTable {
 						// TODO: we need to send a measure event for the paint event to have the proper size calculations, but where should that be done?
 						if(paintEventBlockedCount == 0 && row >= 0) {
 							if (handle.isListening (SWT.MeasureItem)) {
-								CellPaintEvent event = new CellPaintEvent(table, CellPaintEvent.MEASURE_TYPE);
-								event.row = row;
-								event.column = column;
-								event.tableItem = tableItemObject.getTableItem();
+								CellPaintEvent event = acquireCellPaintEvent(CellPaintEvent.MEASURE_TYPE, row, column, tableItemObject.getTableItem());
 								event.ignoreDrawForeground = this.ignoreDrawForeground;
 								event.ignoreDrawBackground = this.ignoreDrawBackground;
 								event.ignoreDrawSelection = this.ignoreDrawSelection;
 								event.ignoreDrawFocused = this.ignoreDrawFocused;
 								handle.processEvent(event);
+								releaseCellPaintEvent(event);
 							}
-							if(tableItemObject != null) {
-								CellPaintEvent event = new CellPaintEvent(table, CellPaintEvent.PAINT_TYPE);
-								event.row = row;
-								event.column = column;
-								event.tableItem = tableItemObject.getTableItem();
+							if(tableItemObject != null && handle.isListening(SWT.PaintItem)) {
+								CellPaintEvent event = acquireCellPaintEvent(CellPaintEvent.PAINT_TYPE, row, column, tableItemObject.getTableItem());
 								event.ignoreDrawForeground = this.ignoreDrawForeground;
 								event.ignoreDrawBackground = this.ignoreDrawBackground;
 								event.ignoreDrawSelection = this.ignoreDrawSelection;
 								event.ignoreDrawFocused = this.ignoreDrawFocused;
 								handle.processEvent(event);
+								releaseCellPaintEvent(event);
 							}
 						}
 					}
@@ -472,6 +520,9 @@ class CTableImplementation extends JScrollPane implements CTable {
 				graphics = g;
 				Utils.addDesktopRenderingHints((Graphics2D)g);
 				putClientProperty(Utils.SWTSwingGraphics2DClientProperty, g);
+				if(isVirtualType) {
+					firePrefetchEvent();
+				}
 				super.paintComponent(g);
 				handle.processEvent(new PaintEvent(this, PaintEvent.PAINT, null));
 				putClientProperty(Utils.SWTSwingGraphics2DClientProperty, null);
@@ -659,6 +710,7 @@ class CTableImplementation extends JScrollPane implements CTable {
 
 	protected void init(int style) {
 		isCheckType = (style & SWT.CHECK) != 0;
+		isVirtualType = (style & SWT.VIRTUAL) != 0;
 		if((style & SWT.BORDER) != 0) {
 			setBorder(LookAndFeelUtils.getStandardBorder());
 		} else {
@@ -713,7 +765,9 @@ class CTableImplementation extends JScrollPane implements CTable {
 		Utils.installComponentListener(this, handle);
 		table.getSelectionModel().addListSelectionListener(new ListSelectionListener() {
 			public void valueChanged(ListSelectionEvent e) {
-				handle.processEvent(e);
+				if(!isAdjustingSelection) {
+					handle.processEvent(e);
+				}
 			}
 		});
 	}
@@ -749,6 +803,12 @@ class CTableImplementation extends JScrollPane implements CTable {
 	}
 
 	private int paintEventBlockedCount = 0;
+
+	protected long rendererAllocationCount;
+
+	public long getRendererAllocationCount() {
+		return rendererAllocationCount;
+	}
 	
 	public Rectangle getCellRect(int row, int column, boolean includeSpacing) {
 		try {
@@ -782,14 +842,121 @@ class CTableImplementation extends JScrollPane implements CTable {
 	public void addItem(int index) {
 		rowCount++;
 //		adjustItemHeight = true;
+		if(bulkChangeCount > 0) {
+			switch(bulkChangeType) {
+				case BULK_CHANGE_NONE:
+					bulkChangeType = BULK_CHANGE_INSERT;
+					bulkChangeFirstRow = index;
+					bulkChangeLastRow = index;
+					break;
+				case BULK_CHANGE_INSERT:
+					if(bulkChangeFirstRow <= index && index <= bulkChangeLastRow + 1) {
+						bulkChangeLastRow++;
+					} else {
+						bulkChangeType = BULK_CHANGE_MIXED;
+					}
+					break;
+				default:
+					bulkChangeType = BULK_CHANGE_MIXED;
+					break;
+			}
+			// The table only learns about the change at the end, so the selection has to follow it now.
+			boolean isAdjustingSelection = this.isAdjustingSelection;
+			this.isAdjustingSelection = true;
+			getSelectionModel().insertIndexInterval(index, 1, true);
+			this.isAdjustingSelection = isAdjustingSelection;
+			return;
+		}
 		getModel().fireTableRowsInserted(index, index);
 	}
 
 	public void removeItem(int index) {
 //		adjustItemHeight = true;
 		rowCount--;
+		if(bulkChangeCount > 0) {
+			switch(bulkChangeType) {
+				case BULK_CHANGE_NONE:
+					bulkChangeType = BULK_CHANGE_DELETE;
+					bulkChangeFirstRow = index;
+					bulkChangeLastRow = index;
+					break;
+				case BULK_CHANGE_DELETE:
+					// The range is in the coordinates of the rows before the change.
+					if(index == bulkChangeFirstRow - 1) {
+						bulkChangeFirstRow--;
+					} else if(index == bulkChangeFirstRow) {
+						bulkChangeLastRow++;
+					} else {
+						bulkChangeType = BULK_CHANGE_MIXED;
+					}
+					break;
+				default:
+					bulkChangeType = BULK_CHANGE_MIXED;
+					break;
+			}
+			boolean isAdjustingSelection = this.isAdjustingSelection;
+			this.isAdjustingSelection = true;
+			getSelectionModel().removeIndexInterval(index, index);
+			this.isAdjustingSelection = isAdjustingSelection;
+			return;
+		}
 		getModel().fireTableRowsDeleted(index, index);
 	}
+
+	protected static final int BULK_CHANGE_NONE = 0;
+	protected static final int BULK_CHANGE_INSERT = 1;
+	protected static final int BULK_CHANGE_DELETE = 2;
+	protected static final int BULK_CHANGE_MIXED = 3;
+
+	protected int bulkChangeCount;
+	protected int bulkChangeType;
+	protected int bulkChangeFirstRow;
+	protected int bulkChangeLastRow;
+	protected boolean isAdjustingSelection;
+
+	public void beginBulkChange() {
+		if(bulkChangeCount++ == 0) {
+			bulkChangeType = BULK_CHANGE_NONE;
+		}
+	}
+
+	public void endBulkChange() {
+		if(bulkChangeCount == 0 || --bulkChangeCount > 0) {
+			return;
+		}
+		if(bulkChangeType == BULK_CHANGE_NONE) {
+			return;
+		}
+		DefaultListSelectionModel selectionModel = getSelectionModel();
+		boolean isAdjustingSelection = this.isAdjustingSelection;
+		this.isAdjustingSelection = true;
+		try {
+			// The selection already follows the changes, so it must neither move again nor be cleared when the table gets the event.
+			DefaultListSelectionModel selection = (DefaultListSelectionModel)selectionModel.clone();
+			fireBulkChange();
+			Utils.copySelection(selection, selectionModel);
+		} catch(CloneNotSupportedException e) {
+			fireBulkChange();
+		} finally {
+			this.isAdjustingSelection = isAdjustingSelection;
+		}
+	}
+
+	protected void fireBulkChange() {
+		int bulkChangeType = this.bulkChangeType;
+		this.bulkChangeType = BULK_CHANGE_NONE;
+		switch(bulkChangeType) {
+			case BULK_CHANGE_INSERT:
+				getModel().fireTableRowsInserted(bulkChangeFirstRow, bulkChangeLastRow);
+				break;
+			case BULK_CHANGE_DELETE:
+				getModel().fireTableRowsDeleted(bulkChangeFirstRow, bulkChangeLastRow);
+				break;
+			case BULK_CHANGE_MIXED:
+				getModel().fireTableDataChanged();
+				break;
+		}
+	}
 	
 	public TableCellRenderer getCellRenderer(int row, int column) {
 		return table.getCellRenderer(row, column);
@@ -894,6 +1061,23 @@ class CTableImplementation extends JScrollPane implements CTable {
 	public int getTopIndex() {
 		return rowAtPoint(new Point(0, 0));
 	}
+
+	/**
+	 * Tell the widget which rows are about to be painted, so that it can request the data of
+	 * virtual items in one pass rather than one cell at a time while the cells get rendered.
+	 */
+	protected void firePrefetchEvent() {
+		Rectangle visibleRect = table.getVisibleRect();
+		int firstRow = table.rowAtPoint(visibleRect.getLocation());
+		if(firstRow == -1) {
+			return;
+		}
+		int lastRow = table.rowAtPoint(new Point(visibleRect.x, visibleRect.y + visibleRect.height - 1));
+		if(lastRow == -1) {
+			lastRow = table.getRowCount() - 1;
+		}
+		handle.processEvent(new PrefetchEvent(this, firstRow, lastRow));
+	}
 	
 	public void moveColumn(int column, int targetColumn) {
 		table.moveColumn(column, targetColumn);
@@ -1002,6 +1186,19 @@ public interface CTable extends CComposite {
 		}
 		
 	}
+
+	public static class PrefetchEvent extends EventObject {
+
+		public int firstRow;
+		public int lastRow;
+
+		PrefetchEvent(Object source, int firstRow, int lastRow) {
+			super(source);
+			this.firstRow = firstRow;
+			this.lastRow = lastRow;
+		}
+
+	}
 	
 	
 	public static class Factory {
@@ -1031,6 +1228,14 @@ public interface CTable extends CComposite {
 
 	public void removeItem(int index);
 
+	/**
+	 * Start a bulk change: the item additions and removals that follow do not fire any table model event,
+	 * until the matching call to endBulkChange() which fires a single event for all of them. Bulk changes can be nested.
+	 */
+	public void beginBulkChange();
+
+	public void endBulkChange();
+
 	public TableCellRenderer getCellRenderer(int row, int column);
 
 	public int getPreferredColumnWidth(int columnIndex);
@@ -1059,4 +1264,9 @@ public interface CTable extends CComposite {
 	
 	public Rectangle getImageBounds(int row, int column);
 	
+	/**
+	 * @return the number of cell paint events and check box renderers that the cell renderer had to allocate.
+	 */
+	public long getRendererAllocationCount();
+	
 }
@@ -25,7 +25,6 @@ class CTableItemImplementation implements CTableItem {
 	}
 
 	public CTableItemImplementation(TableItem tableItem, int style) {
-		setUserObjects(new TableItemObject[] {new TableItemObject(this)});
 		handle = tableItem;
 		init(style);
 	}
@@ -46,6 +45,10 @@ class CTableItemImplementation implements CTableItem {
 		return tableItemObject;
 	}
 
+	public void clearTableItemObjects() {
+		setUserObjects(null);
+	}
+
 	protected boolean isChecked;
 
 	public void setChecked(boolean isChecked) {
@@ -68,15 +71,21 @@ class CTableItemImplementation implements CTableItem {
 
 	public void insertColumn(int index) {
 		TableItemObject[] objects = getUserObjects();
+		if(objects == null || index >= objects.length) {
+			// The objects are created when they are requested, so there is nothing to shift.
+			return;
+		}
 		TableItemObject[] newObjects = new TableItemObject[objects.length + 1];
 		System.arraycopy(objects, 0, newObjects, 0, index);
 		System.arraycopy(objects, index, newObjects, index + 1, objects.length - index);
-		newObjects[index] = new TableItemObject(this);
 		setUserObjects(newObjects);
 	}
 
 	public void removeColumn(int index) {
 		TableItemObject[] objects = getUserObjects();
+		if(objects == null || index >= objects.length) {
+			return;
+		}
 		TableItemObject[] newObjects = new TableItemObject[objects.length - 1];
 		System.arraycopy(objects, 0, newObjects, 0, index);
 		System.arraycopy(objects, index + 1, newObjects, index, newObjects.length - index);
@@ -239,6 +248,11 @@ public interface CTableItem extends CItem {
 
 	public TableItemObject getTableItemObject(int index);
 
+	/**
+	 * Drop the objects of all the columns. They are created again when they are requested.
+	 */
+	public void clearTableItemObjects();
+
 	public void setChecked(boolean isChecked);
 
 	public boolean isChecked();
@@ -32,7 +32,9 @@ import javax.swing.event.DocumentListener;
 import javax.swing.text.AbstractDocument;
 import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
 import javax.swing.text.DocumentFilter;
+import javax.swing.text.Element;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Control;
@@ -183,7 +185,7 @@ class CTextMulti extends JScrollPane implements CText {
 //			public void insertString(FilterBypass fb, int offset, String string, AttributeSet attr) throws BadLocationException {
 //			}
 			public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs) throws BadLocationException {
-				if(getText().length() - length + text.length() > getTextLimit()) {
+				if(fb.getDocument().getLength() - length + text.length() > getTextLimit()) {
 					return;
 				}
 				TextFilterEvent filterEvent = new TextFilterEvent(this, text, offset, length, keyEvent);
@@ -194,6 +196,10 @@ class CTextMulti extends JScrollPane implements CText {
 				}
 			}
 			public void remove(FilterBypass fb, int offset, int length) throws BadLocationException {
+				if(isTrimming) {
+					super.remove(fb, offset, length);
+					return;
+				}
 				TextFilterEvent filterEvent = new TextFilterEvent(this, "", offset, length, keyEvent);
 				handle.processEvent(filterEvent);
 				String s = filterEvent.getText();
@@ -208,6 +214,56 @@ class CTextMulti extends JScrollPane implements CText {
 		return textArea;
 	}
 
+	public int getCharCount() {
+		return textArea.getDocument().getLength();
+	}
+
+	public void append(String text) {
+		AbstractDocument document = (AbstractDocument)textArea.getDocument();
+		try {
+			document.replace(document.getLength(), 0, text, null);
+		} catch(BadLocationException e) {
+		}
+		trimLines();
+		textArea.setCaretPosition(document.getLength());
+	}
+
+	protected int maximumLineCount = -1;
+	protected boolean isTrimming;
+
+	public void setMaximumLineCount(int maximumLineCount) {
+		this.maximumLineCount = maximumLineCount;
+		trimLines();
+	}
+
+	public int getMaximumLineCount() {
+		return maximumLineCount;
+	}
+
+	/**
+	 * Remove the lines at the head of the document that exceed the maximum line count.
+	 * The line elements give the offset to cut at, so the document content is not read.
+	 */
+	protected void trimLines() {
+		if(maximumLineCount <= 0) {
+			return;
+		}
+		Document document = textArea.getDocument();
+		Element root = document.getDefaultRootElement();
+		int excessLineCount = root.getElementCount() - maximumLineCount;
+		if(excessLineCount <= 0) {
+			return;
+		}
+		int offset = root.getElement(excessLineCount).getStartOffset();
+		isTrimming = true;
+		try {
+			document.remove(0, offset);
+		} catch(BadLocationException e) {
+		} finally {
+			isTrimming = false;
+		}
+	}
+
 	public String getText() {
 		return textArea.getText();
 	}
@@ -218,6 +274,7 @@ class CTextMulti extends JScrollPane implements CText {
 
 	public void setText(String text) {
 		textArea.setText(text);
+		trimLines();
 	}
 
 	public void setSelectionStart(int start) {
@@ -470,9 +527,8 @@ class CTextField extends JPasswordField implements CText {
 		((AbstractDocument)getDocument()).setDocumentFilter(new DocumentFilter() {
 //			public void insertString(FilterBypass fb, int offset, String string, AttributeSet attr) throws BadLocationException {
 //			}
-			@SuppressWarnings("deprecation")
 			public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs) throws BadLocationException {
-				if(getText().length() - length + text.length() > getTextLimit()) {
+				if(fb.getDocument().getLength() - length + text.length() > getTextLimit()) {
 					return;
 				}
 				TextFilterEvent filterEvent = new TextFilterEvent(this, text, offset, length, keyEvent);
@@ -501,6 +557,26 @@ class CTextField extends JPasswordField implements CText {
 		super.setText(text.replaceAll("[\r\n]", ""));
 	}
 
+	public int getCharCount() {
+		return getDocument().getLength();
+	}
+
+	public void append(String text) {
+		AbstractDocument document = (AbstractDocument)getDocument();
+		try {
+			document.replace(document.getLength(), 0, text.replaceAll("[\r\n]", ""), null);
+		} catch(BadLocationException e) {
+		}
+		setCaretPosition(document.getLength());
+	}
+
+	public void setMaximumLineCount(int maximumLineCount) {
+	}
+
+	public int getMaximumLineCount() {
+		return -1;
+	}
+
 	public void setEchoChar(char c) {
 		super.setEchoChar(c);
 		if(c == '\0') {
@@ -651,6 +727,23 @@ public interface CText extends CScrollable {
 
 	public void setText(String text);
 
+	/**
+	 * @return the length of the document, without copying its content.
+	 */
+	public int getCharCount();
+
+	/**
+	 * Insert the text at the end of the document, without replacing the existing content.
+	 */
+	public void append(String text);
+
+	/**
+	 * Set the maximum number of lines kept by the document, the lines in excess being removed from its head. A value of -1 means no limit.
+	 */
+	public void setMaximumLineCount(int maximumLineCount);
+
+	public int getMaximumLineCount();
+
 	public void setSelectionStart(int start);
 
 	public void setSelectionEnd(int end);
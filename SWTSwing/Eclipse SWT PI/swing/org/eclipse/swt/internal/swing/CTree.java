@@ -26,7 +26,11 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.PaintEvent;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.EventObject;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
@@ -50,6 +54,7 @@ import javax.swing.table.TableColumn;
 import javax.swing.table.TableColumnModel;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.MutableTreeNode;
+import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 import javax.swing.tree.TreeSelectionModel;
 
@@ -63,6 +68,7 @@ class CTreeImplementation extends JScrollPane implements CTree {
 	protected JTreeTable treeTable;
 	protected DefaultMutableTreeTableNode rootNode;
 	protected boolean isCheckType;
+	protected boolean isVirtualType;
 
 	public Container getSwingComponent() {
 		return treeTable;
@@ -115,8 +121,10 @@ class CTreeImplementation extends JScrollPane implements CTree {
 		rootNode = new DefaultMutableTreeTableNode() {
 			public void insert(MutableTreeNode newChild, int childIndex) {
 				super.insert(newChild, childIndex);
-				getModel().nodesWereInserted(this, new int[] {childIndex});
-				treeTable.expandPath(new TreePath(rootNode.getPath()));
+				nodeWasInserted(this, childIndex);
+				if(bulkChangeCount == 0) {
+					treeTable.expandPath(new TreePath(rootNode.getPath()));
+				}
 			}
 		};
 		treeTable = new JTreeTable(new DefaultTreeModel(rootNode)) {
@@ -317,6 +325,9 @@ class CTreeImplementation extends JScrollPane implements CTree {
 				graphics = g;
 				Utils.addDesktopRenderingHints((Graphics2D)g);
 				putClientProperty(Utils.SWTSwingGraphics2DClientProperty, g);
+				if(isVirtualType) {
+					firePrefetchEvent();
+				}
 				super.paintComponent(g);
 				handle.processEvent(new PaintEvent(this, PaintEvent.PAINT, null));
 				putClientProperty(Utils.SWTSwingGraphics2DClientProperty, null);
@@ -612,6 +623,7 @@ class CTreeImplementation extends JScrollPane implements CTree {
 
 	protected void init(int style) {
 		isCheckType = (style & SWT.CHECK) != 0;
+		isVirtualType = (style & SWT.VIRTUAL) != 0;
 		if((style & SWT.BORDER) != 0) {
 			setBorder(LookAndFeelUtils.getStandardBorder());
 		} else {
@@ -634,10 +646,14 @@ class CTreeImplementation extends JScrollPane implements CTree {
 		}
 		treeTable.addTreeExpansionListener(new TreeExpansionListener() {
 			public void treeCollapsed(TreeExpansionEvent e) {
-				handle.processEvent(e);
+				if(!isAdjustingExpansion) {
+					handle.processEvent(e);
+				}
 			}
 			public void treeExpanded(TreeExpansionEvent e) {
-				handle.processEvent(e);
+				if(!isAdjustingExpansion) {
+					handle.processEvent(e);
+				}
 			}
 		});
 		treeTable.addTreeSelectionListener(new TreeSelectionListener() {
@@ -683,14 +699,28 @@ class CTreeImplementation extends JScrollPane implements CTree {
 	}
 
 	public void expandPath(TreePath treePath) {
+		if(bulkChangeMap != null) {
+			// The tree may not know the node yet, so it is expanded once the tree gets the changes.
+			if(bulkExpandedNodeList == null) {
+				bulkExpandedNodeList = new ArrayList<TreeNode>();
+			}
+			bulkExpandedNodeList.add((TreeNode)treePath.getLastPathComponent());
+			return;
+		}
 		treeTable.expandPath(treePath);
 	}
 
 	public void collapsePath(TreePath treePath) {
+		if(bulkExpandedNodeList != null) {
+			bulkExpandedNodeList.remove(treePath.getLastPathComponent());
+		}
 		treeTable.collapsePath(treePath);
 	}
 
 	public boolean isExpanded(TreePath path) {
+		if(bulkExpandedNodeList != null && bulkExpandedNodeList.contains(path.getLastPathComponent())) {
+			return true;
+		}
 		return treeTable.isExpanded(path);
 	}
 
@@ -702,6 +732,140 @@ class CTreeImplementation extends JScrollPane implements CTree {
 		return (DefaultTreeModel)treeTable.getModel();
 	}
 
+	protected int bulkChangeCount;
+	/**
+	 * The nodes whose children changed during the bulk change, with the range of the children that were inserted,
+	 * or null if the changes cannot be described as a single range of insertions.
+	 */
+	protected IdentityHashMap<TreeNode, int[]> bulkChangeMap;
+	protected ArrayList<TreeNode> bulkExpandedNodeList;
+	protected boolean isAdjustingExpansion;
+
+	public void beginBulkChange() {
+		bulkChangeCount++;
+	}
+
+	public void endBulkChange() {
+		if(bulkChangeCount == 0 || --bulkChangeCount > 0) {
+			return;
+		}
+		if(bulkChangeMap == null) {
+			return;
+		}
+		IdentityHashMap<TreeNode, int[]> changeMap = bulkChangeMap;
+		bulkChangeMap = null;
+		DefaultTreeModel model = getModel();
+		for(Map.Entry<TreeNode, int[]> entry: changeMap.entrySet()) {
+			TreeNode node = entry.getKey();
+			if(!isAttached(node)) {
+				// The node was removed afterwards: the change of its parent covers it.
+				continue;
+			}
+			int[] range = entry.getValue();
+			if(range == null) {
+				nodeStructureChanged(node);
+			} else {
+				int[] childIndices = new int[range[1] - range[0] + 1];
+				for(int i=0; i<childIndices.length; i++) {
+					childIndices[i] = range[0] + i;
+				}
+				model.nodesWereInserted(node, childIndices);
+			}
+		}
+		if(changeMap.containsKey(rootNode)) {
+			treeTable.expandPath(new TreePath(rootNode.getPath()));
+		}
+		ArrayList<TreeNode> expandedNodeList = bulkExpandedNodeList;
+		bulkExpandedNodeList = null;
+		if(expandedNodeList != null) {
+			for(TreeNode expandedNode: expandedNodeList) {
+				if(isAttached(expandedNode)) {
+					treeTable.expandPath(new TreePath(model.getPathToRoot(expandedNode)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fire a structure change for the node, and expand again its descendants that were expanded and are still in the tree,
+	 * including the ones expanded during the bulk change.
+	 */
+	protected void nodeStructureChanged(TreeNode node) {
+		DefaultTreeModel model = getModel();
+		ArrayList<TreeNode> expandedNodeList = new ArrayList<TreeNode>();
+		Enumeration<TreePath> expandedPaths = treeTable.getExpandedDescendants(new TreePath(model.getPathToRoot(node)));
+		if(expandedPaths != null) {
+			while(expandedPaths.hasMoreElements()) {
+				expandedNodeList.add((TreeNode)expandedPaths.nextElement().getLastPathComponent());
+			}
+		}
+		model.nodeStructureChanged(node);
+		boolean isAdjustingExpansion = this.isAdjustingExpansion;
+		this.isAdjustingExpansion = true;
+		try {
+			for(TreeNode expandedNode: expandedNodeList) {
+				if(isAttached(expandedNode)) {
+					treeTable.expandPath(new TreePath(model.getPathToRoot(expandedNode)));
+				}
+			}
+		} finally {
+			this.isAdjustingExpansion = isAdjustingExpansion;
+		}
+	}
+
+	protected boolean isAttached(TreeNode node) {
+		for(; node != null; node = node.getParent()) {
+			if(node == rootNode) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void nodeWasInserted(TreeNode parentNode, int index) {
+		if(bulkChangeCount == 0) {
+			getModel().nodesWereInserted(parentNode, new int[] {index});
+			return;
+		}
+		if(bulkChangeMap == null) {
+			bulkChangeMap = new IdentityHashMap<TreeNode, int[]>();
+		}
+		if(!bulkChangeMap.containsKey(parentNode)) {
+			bulkChangeMap.put(parentNode, new int[] {index, index});
+			return;
+		}
+		int[] range = bulkChangeMap.get(parentNode);
+		if(range != null && range[0] <= index && index <= range[1] + 1) {
+			range[1]++;
+		} else {
+			bulkChangeMap.put(parentNode, null);
+		}
+	}
+
+	public void nodeWasRemoved(TreeNode parentNode, int index, TreeNode node) {
+		if(bulkChangeCount == 0) {
+			getModel().nodesWereRemoved(parentNode, new int[] {index}, new Object[] {node});
+			return;
+		}
+		if(bulkChangeMap == null || !bulkChangeMap.containsKey(parentNode)) {
+			// The tree knows all the children of the parent, so it can follow the removal right away and keep its expanded nodes.
+			getModel().nodesWereRemoved(parentNode, new int[] {index}, new Object[] {node});
+			return;
+		}
+		bulkChangeMap.put(parentNode, null);
+	}
+
+	public void nodeChanged(TreeNode node) {
+		if(bulkChangeCount > 0 && bulkChangeMap != null) {
+			// The tree does not know yet about the new children of a changed node.
+			TreeNode parentNode = node.getParent();
+			if(parentNode == null || bulkChangeMap.containsKey(parentNode)) {
+				return;
+			}
+		}
+		getModel().nodeChanged(node);
+	}
+
 	private int paintEventBlockedCount = 0;
 	
 	public Rectangle getCellRect(int row, int column, boolean includeSpacing) {
@@ -817,6 +981,23 @@ class CTreeImplementation extends JScrollPane implements CTree {
 	public int getTopIndex() {
 		return rowAtPoint(new Point(0, 0));
 	}
+
+	/**
+	 * Tell the widget which rows are about to be painted, so that it can request the data of
+	 * virtual items in one pass rather than one cell at a time while the cells get rendered.
+	 */
+	protected void firePrefetchEvent() {
+		Rectangle visibleRect = treeTable.getVisibleRect();
+		int firstRow = treeTable.rowAtPoint(visibleRect.getLocation());
+		if(firstRow == -1) {
+			return;
+		}
+		int lastRow = treeTable.rowAtPoint(new Point(visibleRect.x, visibleRect.y + visibleRect.height - 1));
+		if(lastRow == -1) {
+			lastRow = treeTable.getRowCount() - 1;
+		}
+		handle.processEvent(new PrefetchEvent(this, firstRow, lastRow));
+	}
 	
 	public void setTopIndex(int index) {
 		ensureRowVisible(index);
@@ -935,6 +1116,19 @@ public interface CTree extends CComposite {
 		}
 		
 	}
+
+	public static class PrefetchEvent extends EventObject {
+
+		public int firstRow;
+		public int lastRow;
+
+		PrefetchEvent(Object source, int firstRow, int lastRow) {
+			super(source);
+			this.firstRow = firstRow;
+			this.lastRow = lastRow;
+		}
+
+	}
 	
 	public static class Factory {
 		private Factory() {}
@@ -967,6 +1161,20 @@ public interface CTree extends CComposite {
 
 	public DefaultTreeModel getModel();
 
+	/**
+	 * Start a bulk change: the node insertions and removals that follow do not fire any tree model event,
+	 * until the matching call to endBulkChange() which fires one event per changed parent node. Bulk changes can be nested.
+	 */
+	public void beginBulkChange();
+
+	public void endBulkChange();
+
+	public void nodeWasInserted(TreeNode parentNode, int index);
+
+	public void nodeWasRemoved(TreeNode parentNode, int index, TreeNode node);
+
+	public void nodeChanged(TreeNode node);
+
 	public Rectangle getCellRect(int row, int column, boolean includeSpacing);
 
 	public int getRowForPath(TreePath path);
@@ -0,0 +1,209 @@
+/*
+ * Christopher Deckers (chrriis@nextencia.net)
+ * http://www.nextencia.net
+ *
+ * See the file "readme.txt" for information on usage and redistribution of
+ * this file, and for a DISCLAIMER OF ALL WARRANTIES.
+ */
+package org.eclipse.swt.internal.swing;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+
+/**
+ * Scanline based conversions between SWT image data and buffered images.
+ * @author Christopher Deckers (chrriis@nextencia.net)
+ */
+public class ImageConverter {
+
+	protected ImageConverter() {}
+
+	/**
+	 * Write the image data to the buffered image. Pixels that are masked out or that
+	 * are fully transparent keep the content that the buffered image already has.
+	 */
+	public static void writeImageData(ImageData data, BufferedImage image) {
+		int width = Math.min(data.width, image.getWidth());
+		int height = Math.min(data.height, image.getHeight());
+		PaletteData palette = data.palette;
+		int[] lookupTable = palette.isDirect? null: createLookupTable(palette, data.depth);
+		byte[] maskData = data.maskData;
+		int maskBytesPerLine = maskData == null? 0: (((data.width + 7) / 8) + (data.maskPad - 1)) / data.maskPad * data.maskPad;
+		int transparentPixel = maskData == null? data.transparentPixel: -1;
+		byte[] alphaData = data.alphaData;
+		boolean isTransparent = maskData != null || transparentPixel != -1 || alphaData != null;
+		// Writing through the raster rather than grabbing the data buffer keeps the image managed (accelerated).
+		WritableRaster raster = image.getType() == BufferedImage.TYPE_INT_ARGB? image.getRaster(): null;
+		int[] pixels = new int[width];
+		int[] rgbs = new int[width];
+		int[] argbs = new int[width];
+		for(int y=0; y<height; y++) {
+			readPixels(data, y, width, pixels);
+			if(lookupTable != null) {
+				for(int x=0; x<width; x++) {
+					rgbs[x] = lookupTable[pixels[x]];
+				}
+			} else {
+				convertDirectPixels(palette, pixels, rgbs, width);
+			}
+			if(!isTransparent) {
+				for(int x=0; x<width; x++) {
+					argbs[x] = rgbs[x] | 0xFF000000;
+				}
+			} else {
+				if(raster != null) {
+					raster.getDataElements(0, y, width, 1, argbs);
+				} else {
+					image.getRGB(0, y, width, 1, argbs, 0, width);
+				}
+				int maskOffset = y * maskBytesPerLine;
+				int alphaOffset = y * data.width;
+				for(int x=0; x<width; x++) {
+					if(maskData != null) {
+						if((maskData[maskOffset + (x >> 3)] & (0x80 >> (x & 7))) == 0) {
+							continue;
+						}
+					} else if(pixels[x] == transparentPixel) {
+						continue;
+					}
+					int alpha = alphaData == null? 0xFF: alphaData[alphaOffset + x] & 0xFF;
+					if(alpha != 0) {
+						argbs[x] = rgbs[x] | alpha << 24;
+					}
+				}
+			}
+			if(raster != null) {
+				raster.setDataElements(0, y, width, 1, argbs);
+			} else {
+				image.setRGB(0, y, width, 1, argbs, 0, width);
+			}
+		}
+	}
+
+	protected static int[] createLookupTable(PaletteData palette, int depth) {
+		RGB[] rgbs = palette.colors;
+		int[] lookupTable = new int[Math.max(rgbs.length, depth < 16? 1 << depth: 0)];
+		for(int i=0; i<rgbs.length; i++) {
+			RGB rgb = rgbs[i];
+			lookupTable[i] = rgb.red << 16 | rgb.green << 8 | rgb.blue;
+		}
+		return lookupTable;
+	}
+
+	protected static void readPixels(ImageData data, int y, int width, int[] pixels) {
+		byte[] bytes = data.data;
+		int offset = y * data.bytesPerLine;
+		switch(data.depth) {
+			case 32:
+				for(int x=0; x<width; x++) {
+					pixels[x] = (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+					offset += 4;
+				}
+				break;
+			case 24:
+				for(int x=0; x<width; x++) {
+					pixels[x] = (bytes[offset] & 0xFF) << 16 | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF);
+					offset += 3;
+				}
+				break;
+			case 8:
+				for(int x=0; x<width; x++) {
+					pixels[x] = bytes[offset + x] & 0xFF;
+				}
+				break;
+			case 4:
+				for(int x=0; x<width; x++) {
+					pixels[x] = (bytes[offset + (x >> 1)] >> ((x & 1) == 0? 4: 0)) & 0x0F;
+				}
+				break;
+			case 2:
+				for(int x=0; x<width; x++) {
+					pixels[x] = (bytes[offset + (x >> 2)] >> (6 - ((x & 3) << 1))) & 0x03;
+				}
+				break;
+			case 1:
+				for(int x=0; x<width; x++) {
+					pixels[x] = (bytes[offset + (x >> 3)] >> (7 - (x & 7))) & 0x01;
+				}
+				break;
+			default:
+				data.getPixels(0, y, width, pixels, 0);
+				break;
+		}
+	}
+
+	protected static void convertDirectPixels(PaletteData palette, int[] pixels, int[] rgbs, int width) {
+		int redMask = palette.redMask;
+		int greenMask = palette.greenMask;
+		int blueMask = palette.blueMask;
+		if(redMask == 0xFF0000 && greenMask == 0xFF00 && blueMask == 0xFF) {
+			for(int x=0; x<width; x++) {
+				rgbs[x] = pixels[x] & 0xFFFFFF;
+			}
+			return;
+		}
+		int redShift = palette.redShift;
+		int greenShift = palette.greenShift;
+		int blueShift = palette.blueShift;
+		for(int x=0; x<width; x++) {
+			int pixel = pixels[x];
+			int red = pixel & redMask;
+			red = redShift < 0? red >>> -redShift: red << redShift;
+			int green = pixel & greenMask;
+			green = greenShift < 0? green >>> -greenShift: green << greenShift;
+			int blue = pixel & blueMask;
+			blue = blueShift < 0? blue >>> -blueShift: blue << blueShift;
+			rgbs[x] = red << 16 | green << 8 | blue;
+		}
+	}
+
+	/**
+	 * Create a direct image data (0xFF0000, 0xFF00, 0xFF) from the buffered image, with alpha data and a transparency mask.
+	 */
+	public static ImageData readImageData(BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		PaletteData paletteData = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+		ImageData imageData = new ImageData(width, height, image.getColorModel().getPixelSize(), paletteData);
+		int maskBytesPerLine = (width + 7) / 8;
+		byte[] maskData = new byte[maskBytesPerLine * height];
+		byte[] alphaData = new byte[width * height];
+		int type = image.getType();
+		WritableRaster raster = type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB? image.getRaster(): null;
+		int[] argbs = new int[width];
+		int[] pixels = new int[width];
+		for(int y=0; y<height; y++) {
+			if(raster != null) {
+				raster.getDataElements(0, y, width, 1, argbs);
+				if(type == BufferedImage.TYPE_INT_RGB) {
+					for(int x=0; x<width; x++) {
+						argbs[x] |= 0xFF000000;
+					}
+				}
+			} else {
+				image.getRGB(0, y, width, 1, argbs, 0, width);
+			}
+			int maskOffset = y * maskBytesPerLine;
+			int alphaOffset = y * width;
+			for(int x=0; x<width; x++) {
+				int argb = argbs[x];
+				pixels[x] = argb & 0xFFFFFF;
+				int alpha = argb >>> 24;
+				alphaData[alphaOffset + x] = (byte)alpha;
+				if(alpha != 0) {
+					maskData[maskOffset + (x >> 3)] |= (byte)(0x80 >> (x & 7));
+				}
+			}
+			imageData.setPixels(0, y, width, pixels, 0);
+		}
+		imageData.alphaData = alphaData;
+		imageData.maskPad = 1;
+		imageData.maskData = maskData;
+		return imageData;
+	}
+
+}
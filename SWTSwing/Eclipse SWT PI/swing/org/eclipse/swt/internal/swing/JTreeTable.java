@@ -19,6 +19,7 @@ import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
+import java.util.Enumeration;
 
 import javax.swing.DefaultListSelectionModel;
 import javax.swing.JComponent;
@@ -185,36 +186,50 @@ public class JTreeTable extends JPanel implements Scrollable {
 
 	protected TreeTableModel tableModel = new TreeTableModel();
 
+	/**
+	 * The component rendering the tree part of a row. It is shared by all the rows, and only
+	 * paints its row: the tree UI is given a clip that only intersects that row.
+	 */
+	protected class FirstColumnComponent extends JComponent implements CellPainter {
+		protected TreePath path;
+		public void setPath(TreePath path) {
+			this.path = path;
+		}
+		public void paintComponent(Graphics g) {
+			if(renderer instanceof DefaultTreeTableCellRenderer) {
+				((DefaultTreeTableCellRenderer)renderer).paintComponent(this, g);
+			} else {
+				paintCell(g);
+			}
+		}
+		public void paintCell(Graphics g) {
+			int row = tree.getRowForPath(path);
+			Rectangle rowBounds = tree.getRowBounds(row);
+			if(rowBounds == null) {
+				return;
+			}
+			g = g.create();
+			int width = table.getColumnModel().getColumn(0).getWidth();
+			g.clipRect(0, 0, width, rowBounds.height);
+			if(isFullLineSelection() && table.isRowSelected(row)) {
+				g.setColor(table.getSelectionBackground());
+				g.fillRect(0, 0, width, rowBounds.height);
+			}
+			g.translate(0, -rowBounds.y);
+			// Paint through the UI rather than the whole component pipeline: the UI only paints the rows intersecting the clip.
+			tree.getUI().paint(g, tree);
+			g.dispose();
+		}
+	}
+
+	protected FirstColumnComponent firstColumnComponent = new FirstColumnComponent();
+
 	protected TableCellRenderer tableCellRenderer = new TableCellRenderer() {
 		public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
-			final TreePath path = tree.getPathForRow(row);
+			TreePath path = tree.getPathForRow(row);
 			if(column == 0) {
-				class FirstColumnComponent extends JComponent implements CellPainter {
-					public void paintComponent(Graphics g) {
-						if(renderer instanceof DefaultTreeTableCellRenderer) {
-							((DefaultTreeTableCellRenderer)renderer).paintComponent(this, g);
-						} else {
-							paintCell(g);
-						}
-					}
-					public void paintCell(Graphics g) {
-						int row = tree.getRowForPath(path);
-						Rectangle rowBounds = tree.getRowBounds(row);
-						rowBounds.width += rowBounds.x;
-						rowBounds.x = 0;
-						g = g.create();
-						int width = JTreeTable.this.table.getColumnModel().getColumn(0).getWidth();
-						g.clipRect(0, 0, width, rowBounds.height);
-						if(isFullLineSelection() && JTreeTable.this.table.isRowSelected(row)) {
-							g.setColor(JTreeTable.this.table.getSelectionBackground());
-							g.fillRect(0, 0, width, rowBounds.height);
-						}
-						g.translate(0, -rowBounds.y);
-						tree.paint(g);
-						g.dispose();
-					}
-				}
-				return new FirstColumnComponent();
+				firstColumnComponent.setPath(path);
+				return firstColumnComponent;
 			}
 			TreeNode node = (TreeNode)path.getLastPathComponent();
 			if(node instanceof TreeTableNode) {
@@ -277,21 +292,26 @@ public class JTreeTable extends JPanel implements Scrollable {
 		}
 
 		public int rowAtPoint(Point point) {
-			int row = tree.getClosestRowForLocation(0, point.y);
-			if(row == -1) {
+			int rowCount = getRowCount();
+			if(rowCount == 0 || point.y < 0) {
 				return -1;
 			}
-			Rectangle rect = getCellRect(getRowCount() - 1, 0, false);
+			Rectangle rect = getCellRect(rowCount - 1, 0, false);
 			if(point.y > rect.y + rect.height) {
 				return -1;
 			}
-			while(getCellRect(row, 0, false).y > point.y) {
-				row--;
-				if(row == -1) {
-					return -1;
+			// The cell bounds come from the row bounds cached by the tree layout, shifted by the intercell spacing of the previous rows, so they are ordered.
+			int low = 0;
+			int high = rowCount - 1;
+			while(low < high) {
+				int mid = (low + high + 1) >>> 1;
+				if(getCellRect(mid, 0, false).y > point.y) {
+					high = mid - 1;
+				} else {
+					low = mid;
 				}
 			}
-			return row;
+			return low;
 		}
 
 		protected void processEvent(AWTEvent e) {
@@ -608,6 +628,10 @@ public class JTreeTable extends JPanel implements Scrollable {
 		return tree.isExpanded(path);
 	}
 
+	public Enumeration<TreePath> getExpandedDescendants(TreePath parent) {
+		return tree.getExpandedDescendants(parent);
+	}
+
 	public void setSelectionMode(int mode) {
 		tree.getSelectionModel().setSelectionMode(mode);
 		switch(mode) {
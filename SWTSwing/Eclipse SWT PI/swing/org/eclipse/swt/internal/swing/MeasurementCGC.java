@@ -0,0 +1,120 @@
+/*
+ * Christopher Deckers (chrriis@nextencia.net)
+ * http://www.nextencia.net
+ *
+ * See the file "readme.txt" for information on usage and redistribution of
+ * this file, and for a DISCLAIMER OF ALL WARRANTIES.
+ */
+package org.eclipse.swt.internal.swing;
+
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+
+/**
+ * A pooled graphics context that is only meant to measure text. It is backed by a 1x1 image
+ * with the desktop rendering hints, so that its font render context matches the one of the
+ * painted components, without having to look for a showing frame.
+ * Disposing it restores its initial state and returns it to the pool.
+ * @author Christopher Deckers (chrriis@nextencia.net)
+ */
+public class MeasurementCGC extends CGC.CGCGraphics2D {
+
+	protected static final int MAX_POOL_SIZE = 4;
+
+	protected static final ArrayList<MeasurementCGC> pool = new ArrayList<>();
+	protected static long creationCount;
+	protected static long acquisitionCount;
+
+	protected final Graphics2D graphics;
+	protected final Font font;
+	protected final Color color;
+	protected final Color background;
+	protected final Paint paint;
+	protected final Stroke stroke;
+	protected final Composite composite;
+	protected final AffineTransform transform;
+	protected final RenderingHints renderingHints;
+
+	protected MeasurementCGC() {
+		graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+		Utils.addDesktopRenderingHints(graphics);
+		graphics.setFont(LookAndFeelUtils.getSystemFont());
+		font = graphics.getFont();
+		color = graphics.getColor();
+		background = graphics.getBackground();
+		paint = graphics.getPaint();
+		stroke = graphics.getStroke();
+		composite = graphics.getComposite();
+		transform = graphics.getTransform();
+		renderingHints = graphics.getRenderingHints();
+	}
+
+	/**
+	 * Get a measurement graphics context from the pool, or create one if the pool is empty.
+	 */
+	public static MeasurementCGC acquire() {
+		synchronized(pool) {
+			acquisitionCount++;
+			int size = pool.size();
+			if(size > 0) {
+				return pool.remove(size - 1);
+			}
+			creationCount++;
+		}
+		return new MeasurementCGC();
+	}
+
+	public Graphics2D getGraphics() {
+		return graphics;
+	}
+
+	public Dimension getDeviceSize() {
+		return new Dimension(1, 1);
+	}
+
+	@Override
+	public void dispose() {
+		setUserClip(null);
+		graphics.setPaintMode();
+		graphics.setFont(font);
+		graphics.setColor(color);
+		graphics.setBackground(background);
+		graphics.setPaint(paint);
+		graphics.setStroke(stroke);
+		graphics.setComposite(composite);
+		graphics.setTransform(transform);
+		graphics.setRenderingHints(renderingHints);
+		synchronized(pool) {
+			if(pool.size() < MAX_POOL_SIZE && !pool.contains(this)) {
+				pool.add(this);
+				return;
+			}
+		}
+		graphics.dispose();
+	}
+
+	/**
+	 * @return the number of graphics contexts that had to be created because the pool was empty.
+	 */
+	public static long getCreationCount() {
+		synchronized(pool) {
+			return creationCount;
+		}
+	}
+
+	public static long getAcquisitionCount() {
+		synchronized(pool) {
+			return acquisitionCount;
+		}
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Christopher Deckers (chrriis@nextencia.net)
+ * http://www.nextencia.net
+ *
+ * See the file "readme.txt" for information on usage and redistribution of
+ * this file, and for a DISCLAIMER OF ALL WARRANTIES.
+ */
+package org.eclipse.swt.internal.swing;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of string widths, with one LRU map per font and font render context.
+ * It is shared by all the GCs, so GCs with the same font render context share the same widths.
+ * @author Christopher Deckers (chrriis@nextencia.net)
+ */
+public class TextExtentCache {
+
+	protected static final String CACHE_SIZE_PROPERTY = "swt.swing.textextentcache.size";
+	protected static final int MAX_FONT_COUNT = 32;
+	protected static final int MAX_STRING_LENGTH = 256;
+
+	protected TextExtentCache() {}
+
+	protected static class FontKey {
+		protected final Font font;
+		protected final FontRenderContext fontRenderContext;
+		protected final int hashCode;
+		public FontKey(Font font, FontRenderContext fontRenderContext) {
+			this.font = font;
+			this.fontRenderContext = fontRenderContext;
+			hashCode = font.hashCode() * 31 + fontRenderContext.hashCode();
+		}
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+		@Override
+		public boolean equals(Object o) {
+			if(!(o instanceof FontKey)) {
+				return false;
+			}
+			FontKey fontKey = (FontKey)o;
+			return font.equals(fontKey.font) && fontRenderContext.equals(fontKey.fontRenderContext);
+		}
+	}
+
+	protected static class LRUMap<K, V> extends LinkedHashMap<K, V> {
+		protected final int maxSize;
+		public LRUMap(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			if(size() > maxSize) {
+				evictionCount++;
+				return true;
+			}
+			return false;
+		}
+	}
+
+	protected static int maxSize = Integer.getInteger(CACHE_SIZE_PROPERTY, 512).intValue();
+	protected static final LRUMap<FontKey, LRUMap<String, Integer>> fontMap = new LRUMap<>(MAX_FONT_COUNT);
+	protected static FontKey lastFontKey;
+	protected static LRUMap<String, Integer> lastWidthMap;
+
+	protected static long hitCount;
+	protected static long missCount;
+	protected static long evictionCount;
+
+	/**
+	 * @return the width of the bounds of the string when drawn with that font in that font render context.
+	 */
+	public static synchronized int getStringWidth(String string, Font font, FontRenderContext fontRenderContext) {
+		if(maxSize <= 0 || string.length() > MAX_STRING_LENGTH) {
+			missCount++;
+			return font.getStringBounds(string, fontRenderContext).getBounds().width;
+		}
+		LRUMap<String, Integer> widthMap;
+		// Consecutive measurements are usually done with the same font, so avoid rehashing the font key.
+		if(lastFontKey != null && lastFontKey.font == font && lastFontKey.fontRenderContext == fontRenderContext) {
+			widthMap = lastWidthMap;
+		} else {
+			FontKey fontKey = new FontKey(font, fontRenderContext);
+			widthMap = fontMap.get(fontKey);
+			if(widthMap == null) {
+				widthMap = new LRUMap<>(maxSize);
+				fontMap.put(fontKey, widthMap);
+			}
+			lastFontKey = fontKey;
+			lastWidthMap = widthMap;
+		}
+		Integer width = widthMap.get(string);
+		if(width != null) {
+			hitCount++;
+			return width.intValue();
+		}
+		missCount++;
+		int stringWidth = font.getStringBounds(string, fontRenderContext).getBounds().width;
+		widthMap.put(string, stringWidth);
+		return stringWidth;
+	}
+
+	/**
+	 * Set the maximum number of strings cached per font, and clear the cache. A size of 0 disables the cache.
+	 */
+	public static synchronized void setMaximumSize(int maxSize) {
+		TextExtentCache.maxSize = maxSize;
+		clear();
+	}
+
+	public static synchronized int getMaximumSize() {
+		return maxSize;
+	}
+
+	public static synchronized void clear() {
+		fontMap.clear();
+		lastFontKey = null;
+		lastWidthMap = null;
+	}
+
+	public static synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public static synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the number of entries (strings or fonts) that were evicted because the cache was full.
+	 */
+	public static synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public static synchronized void resetStatistics() {
+		hitCount = 0;
+		missCount = 0;
+		evictionCount = 0;
+	}
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Christopher Deckers (chrriis@nextencia.net)
+ * http://www.nextencia.net
+ *
+ * See the file "readme.txt" for information on usage and redistribution of
+ * this file, and for a DISCLAIMER OF ALL WARRANTIES.
+ */
+package org.eclipse.swt.internal.swing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * A hashed timer wheel driven by a single daemon thread. Scheduling, rescheduling
+ * and cancelling a runnable are constant time operations, and all the runnables
+ * expiring on the same tick are run in a single hop to the event dispatch thread.
+ * @author Christopher Deckers (chrriis@nextencia.net)
+ */
+public class TimerWheel {
+
+	protected static final int TICK_DURATION = 10;
+	protected static final int WHEEL_SIZE = 512;
+	protected static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+	protected static class Timeout {
+		protected Runnable runnable;
+		protected long remainingRounds;
+		protected int bucket;
+		protected Timeout previous;
+		protected Timeout next;
+	}
+
+	protected final String threadName;
+	protected final Timeout[] wheel = new Timeout[WHEEL_SIZE];
+	protected final HashMap<Runnable, Timeout> timeoutMap = new HashMap<>();
+	protected Thread thread;
+	protected long startTime;
+	protected long tick;
+	protected boolean isDisposed;
+
+	protected long firedCount;
+	protected long cancelledCount;
+	protected long batchCount;
+
+	public TimerWheel(String threadName) {
+		this.threadName = threadName;
+	}
+
+	/**
+	 * Schedule the runnable to run on the event dispatch thread after the given delay.
+	 * If the runnable is already scheduled, it is rescheduled. A negative delay cancels it.
+	 */
+	public synchronized void schedule(int milliseconds, Runnable runnable) {
+		if(isDisposed) {
+			return;
+		}
+		if(milliseconds < 0) {
+			Timeout timeout = timeoutMap.remove(runnable);
+			if(timeout != null) {
+				unlink(timeout);
+				cancelledCount++;
+			}
+			return;
+		}
+		if(thread == null) {
+			startTime = System.nanoTime();
+			tick = 0;
+			thread = new Thread(threadName) {
+				@Override
+				public void run() {
+					runWheel();
+				}
+			};
+			thread.setDaemon(true);
+			thread.start();
+		}
+		Timeout timeout = timeoutMap.get(runnable);
+		if(timeout == null) {
+			timeout = new Timeout();
+			timeout.runnable = runnable;
+			timeoutMap.put(runnable, timeout);
+		} else {
+			unlink(timeout);
+		}
+		long elapsedTicks = (System.nanoTime() - startTime) / 1000000L / TICK_DURATION;
+		// Round up so that a runnable never runs before its delay has elapsed.
+		long deadlineTick = Math.max(elapsedTicks + (milliseconds + TICK_DURATION - 1) / TICK_DURATION, tick);
+		timeout.remainingRounds = (deadlineTick - tick) / WHEEL_SIZE;
+		timeout.bucket = (int)(deadlineTick & WHEEL_MASK);
+		link(timeout);
+		notify();
+	}
+
+	protected void link(Timeout timeout) {
+		Timeout head = wheel[timeout.bucket];
+		timeout.previous = null;
+		timeout.next = head;
+		if(head != null) {
+			head.previous = timeout;
+		}
+		wheel[timeout.bucket] = timeout;
+	}
+
+	protected void unlink(Timeout timeout) {
+		if(timeout.previous != null) {
+			timeout.previous.next = timeout.next;
+		} else {
+			wheel[timeout.bucket] = timeout.next;
+		}
+		if(timeout.next != null) {
+			timeout.next.previous = timeout.previous;
+		}
+		timeout.previous = null;
+		timeout.next = null;
+	}
+
+	protected void runWheel() {
+		while(true) {
+			final ArrayList<Runnable> expiredList = new ArrayList<>();
+			synchronized(this) {
+				while(!isDisposed && expiredList.isEmpty()) {
+					if(timeoutMap.isEmpty()) {
+						try {
+							wait();
+						} catch(InterruptedException e) {
+						}
+						continue;
+					}
+					long elapsedTicks = (System.nanoTime() - startTime) / 1000000L / TICK_DURATION;
+					if(tick > elapsedTicks) {
+						long waitTime = (tick * TICK_DURATION) - (System.nanoTime() - startTime) / 1000000L;
+						if(waitTime > 0) {
+							try {
+								wait(waitTime);
+							} catch(InterruptedException e) {
+							}
+						}
+						continue;
+					}
+					// Catch up with all the ticks that elapsed since the last run.
+					for(; tick <= elapsedTicks; tick++) {
+						expireBucket((int)(tick & WHEEL_MASK), expiredList);
+					}
+				}
+				if(isDisposed) {
+					thread = null;
+					return;
+				}
+				firedCount += expiredList.size();
+				batchCount++;
+			}
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					Throwable throwable = null;
+					for(Runnable runnable: expiredList) {
+						try {
+							runnable.run();
+						} catch(Throwable t) {
+							if(throwable == null) {
+								throwable = t;
+							} else {
+								t.printStackTrace();
+							}
+						}
+					}
+					Utils.throwUncheckedException(throwable);
+				}
+			});
+		}
+	}
+
+	protected void expireBucket(int bucket, ArrayList<Runnable> expiredList) {
+		Timeout timeout = wheel[bucket];
+		while(timeout != null) {
+			Timeout next = timeout.next;
+			if(timeout.remainingRounds <= 0) {
+				unlink(timeout);
+				timeoutMap.remove(timeout.runnable);
+				expiredList.add(timeout.runnable);
+			} else {
+				timeout.remainingRounds--;
+			}
+			timeout = next;
+		}
+	}
+
+	/**
+	 * Cancel all the pending runnables and stop the timer thread.
+	 */
+	public synchronized void dispose() {
+		isDisposed = true;
+		cancelledCount += timeoutMap.size();
+		timeoutMap.clear();
+		for(int i=0; i<WHEEL_SIZE; i++) {
+			wheel[i] = null;
+		}
+		notify();
+	}
+
+	public synchronized int getPendingCount() {
+		return timeoutMap.size();
+	}
+
+	public synchronized long getFiredCount() {
+		return firedCount;
+	}
+
+	public synchronized long getCancelledCount() {
+		return cancelledCount;
+	}
+
+	/**
+	 * @return the number of hops to the event dispatch thread, each one running all the runnables that expired on the same tick.
+	 */
+	public synchronized long getBatchCount() {
+		return batchCount;
+	}
+
+}
@@ -11,6 +11,8 @@ import java.awt.AWTEvent;
 import java.awt.EventQueue;
 import java.awt.Toolkit;
 import java.lang.reflect.Method;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.swing.SwingUtilities;
 
@@ -57,7 +59,7 @@ public class UIThreadUtils {
 		}
 	}
 	
-	protected static Throwable exception;
+	protected static volatile Throwable exception;
 	
 	public static void storeException(Throwable exception) {
 		UIThreadUtils.exception = exception;
@@ -65,7 +67,17 @@ public class UIThreadUtils {
 	
 	public static void throwStoredException() {
 		Throwable e = exception;
+		if(e == null) {
+			return;
+		}
 		exception = null;
+		// The event thread may be waiting for the exception to be thrown before entering a new exclusive section.
+		UI_LOCK.lock();
+		try {
+			EXCEPTION_CLEARED.signalAll();
+		} finally {
+			UI_LOCK.unlock();
+		}
 		Utils.throwUncheckedException(e);
 	}
 	
@@ -147,7 +159,23 @@ public class UIThreadUtils {
 	}
 
 	public static int exclusiveSectionCount = 0;
-	public static final Object UI_LOCK = new Object();
+
+	/*
+	 * When the UI thread is not the event dispatch thread, the event thread hands over its events to the UI thread:
+	 * it requests the UI, waits until the UI thread grants it, runs its exclusive section while the UI thread waits,
+	 * and gives the UI back when the outermost section ends. The state of this hand-off is guarded by UI_LOCK.
+	 */
+	protected static final ReentrantLock UI_LOCK = new ReentrantLock();
+	/** Signaled when the UI thread has a request, is granted the UI back or is woken. */
+	protected static final Condition UI_THREAD_CONDITION = UI_LOCK.newCondition();
+	/** Signaled when the event thread is granted the UI. */
+	protected static final Condition EVENT_THREAD_CONDITION = UI_LOCK.newCondition();
+	/** Signaled when the UI thread has thrown the exception that the event thread stored. */
+	protected static final Condition EXCEPTION_CLEARED = UI_LOCK.newCondition();
+	protected static int eventThreadSectionCount;
+	protected static boolean isEventThreadRequesting;
+	protected static boolean isEventThreadRunning;
+	protected static boolean isUIThreadWakeRequested;
 
 	public static void swtSync(Display display, Runnable runnable) {
 		try {
@@ -163,20 +191,28 @@ public class UIThreadUtils {
 			exclusiveSectionCount++;
 			return;
 		}
-		while(exception != null || !mainThread.isAlive()) {
-			try {
-				Thread.sleep(100);
-			} catch(Exception e) {}
-		}
-		synchronized(UI_LOCK) {
+		UI_LOCK.lock();
+		try {
+			while(exception != null || !mainThread.isAlive()) {
+				EXCEPTION_CLEARED.awaitUninterruptibly();
+			}
 			exclusiveSectionCount++;
-			if(exclusiveSectionCount == 1) {
+			eventThreadSectionCount++;
+			if(eventThreadSectionCount == 1) {
+				isEventThreadRequesting = true;
 				try {
 					display.wake();
-					UI_LOCK.wait();
 				} catch(Exception e) {
+					// The display is disposed: nobody is going to grant the UI, so take it.
+					isEventThreadRequesting = false;
+					isEventThreadRunning = true;
+				}
+				while(!isEventThreadRunning) {
+					EVENT_THREAD_CONDITION.awaitUninterruptibly();
 				}
 			}
+		} finally {
+			UI_LOCK.unlock();
 		}
 	}
 
@@ -185,11 +221,56 @@ public class UIThreadUtils {
 			exclusiveSectionCount--;
 			return;
 		}
-		synchronized(UI_LOCK) {
+		UI_LOCK.lock();
+		try {
 			exclusiveSectionCount--;
-			if(exclusiveSectionCount == 0) {
-				UI_LOCK.notify();
+			eventThreadSectionCount--;
+			if(eventThreadSectionCount == 0) {
+				isEventThreadRunning = false;
+				UI_THREAD_CONDITION.signalAll();
+			}
+		} finally {
+			UI_LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Called by the UI thread to let the event thread run the exclusive section it requested, and wait until it is done.
+	 * @return true if an exclusive section was run, false if none was requested.
+	 */
+	public static boolean runExclusiveSection() {
+		UI_LOCK.lock();
+		try {
+			if(!isEventThreadRequesting) {
+				return false;
+			}
+			isEventThreadRequesting = false;
+			isEventThreadRunning = true;
+			EVENT_THREAD_CONDITION.signal();
+			while(isEventThreadRunning) {
+				UI_THREAD_CONDITION.awaitUninterruptibly();
+			}
+			return true;
+		} finally {
+			UI_LOCK.unlock();
+		}
+	}
+
+	/**
+	 * Called by the UI thread to wait until the event thread requests an exclusive section or the UI thread is woken.
+	 * A wake request that happens before this call is not lost: the call returns immediately.
+	 * @return true if an exclusive section is requested.
+	 */
+	public static boolean sleepUIThread() {
+		UI_LOCK.lock();
+		try {
+			if(!isEventThreadRequesting && !isUIThreadWakeRequested) {
+				UI_THREAD_CONDITION.awaitUninterruptibly();
 			}
+			isUIThreadWakeRequested = false;
+			return isEventThreadRequesting;
+		} finally {
+			UI_LOCK.unlock();
 		}
 	}
 
@@ -200,61 +281,62 @@ public class UIThreadUtils {
 			fakeDispatchingEDT.interrupt();
 			return;
 		}
-		synchronized(UIThreadUtils.UI_LOCK) {
-			UI_LOCK.notify();
+		UI_LOCK.lock();
+		try {
+			isUIThreadWakeRequested = true;
+			UI_THREAD_CONDITION.signalAll();
+		} finally {
+			UI_LOCK.unlock();
 		}
 	}
 	
+	/**
+	 * Wait for the threads that keep the application alive to end, and exit the system when none is left.
+	 * Rather than polling, this method joins such a thread and only looks for the next one when it has ended.
+	 */
 	protected static void monitorShutdown() {
 		while(true) {
+			Thread thread = getApplicationThread();
+			if(thread == null) {
+				System.exit(0);
+			}
 			try {
-				Thread.sleep(200);
-			} catch(Exception e) {}
-			exitSystemIfNoThreads();
+				thread.join();
+			} catch(InterruptedException e) {}
 		}
 	}
 	
 	public static void exitSystemIfNoThreads() {
+		if(getApplicationThread() == null) {
+			System.exit(0);
+		}
+	}
+	
+	/**
+	 * @return a live non daemon thread, other than the current thread and the ones of the VM and of AWT, or null if there is none.
+	 */
+	protected static Thread getApplicationThread() {
 		ThreadGroup group;
 		for(group = Thread.currentThread().getThreadGroup(); group.getParent() != null; group = group.getParent());
 		Thread[] threads = new Thread[group.activeCount() + 10];
 		group.enumerate(threads);
-		boolean isExit = true;
-		// There are 2 VM non daemon threads (AWT-Shutdown and DestroyJavaVM) + the main thread
+		Thread currentThread = Thread.currentThread();
+		// There are 2 VM non daemon threads (AWT-Shutdown and DestroyJavaVM) + the event threads
 		for(int i=0; i<threads.length; i++) {
 			Thread thread = threads[i];
 			if(thread == null) {
 				break;
 			}
-			boolean isDestroyJavaVMThreadFound = false;
-			boolean isAWTShutdownThreadFound = false;
-			boolean isAWTEventQueue0Found = false;
-			boolean isAWTEventQueue1Found = false;
-			if(thread.isAlive() && !thread.isDaemon()) {
-			String threadName = thread.getName();
-			if(!isDestroyJavaVMThreadFound && "DestroyJavaVM".equals(threadName)) {
-			  isDestroyJavaVMThreadFound = false;
-				continue;
-			}
-			if(!isAWTShutdownThreadFound && "AWT-Shutdown".equals(threadName)) {
-				isAWTShutdownThreadFound = false;
-				continue;
-			}
-			if(!isAWTEventQueue0Found && "AWT-EventQueue-0".equals(threadName)) {
-				isAWTEventQueue0Found = false;
+			if(thread == currentThread || !thread.isAlive() || thread.isDaemon()) {
 				continue;
 			}
-			if(!isAWTEventQueue1Found && "AWT-EventQueue-1".equals(threadName)) {
-				isAWTEventQueue1Found = false;
+			String threadName = thread.getName();
+			if("DestroyJavaVM".equals(threadName) || "AWT-Shutdown".equals(threadName) || "AWT-EventQueue-0".equals(threadName) || "AWT-EventQueue-1".equals(threadName)) {
 				continue;
 			}
-				isExit = false;
-				break;
-			}
-		}
-		if(isExit) {
-			System.exit(0);
+			return thread;
 		}
+		return null;
 	}
 	
 }
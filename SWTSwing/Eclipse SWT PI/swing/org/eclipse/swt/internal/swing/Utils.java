@@ -33,6 +33,7 @@ import java.awt.event.MouseWheelListener;
 import java.util.Collections;
 import java.util.Map;
 
+import javax.swing.DefaultListSelectionModel;
 import javax.swing.ImageIcon;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
@@ -234,6 +235,25 @@ public class Utils {
 		});
 	}
 
+	/**
+	 * Make the target selection model hold the selected indices, the anchor and the lead of the source one.
+	 */
+	public static void copySelection(DefaultListSelectionModel source, DefaultListSelectionModel target) {
+		target.clearSelection();
+		int maxIndex = source.getMaxSelectionIndex();
+		for(int i=source.getMinSelectionIndex(); i>=0 && i<=maxIndex; i++) {
+			if(source.isSelectedIndex(i)) {
+				int start = i;
+				while(i < maxIndex && source.isSelectedIndex(i + 1)) {
+					i++;
+				}
+				target.addSelectionInterval(start, i);
+			}
+		}
+		target.setAnchorSelectionIndex(source.getAnchorSelectionIndex());
+		target.moveLeadSelectionIndex(source.getLeadSelectionIndex());
+	}
+
 	public static String escapeSwingXML(String s) {
 		if(s == null) {
 			return s;
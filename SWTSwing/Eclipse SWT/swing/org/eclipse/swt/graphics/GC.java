@@ -33,6 +33,8 @@ import org.eclipse.swt.SWTError;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.internal.swing.CGC;
 import org.eclipse.swt.internal.swing.LookAndFeelUtils;
+import org.eclipse.swt.internal.swing.MeasurementCGC;
+import org.eclipse.swt.internal.swing.TextExtentCache;
 import org.eclipse.swt.internal.swing.Utils;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
@@ -3179,7 +3181,7 @@ public void setClipping (Rectangle rect) {
 public void setClipping (Region region) {
 	if (handle == null) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (region != null && region.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	handle.setUserClip(region.handle);
+	handle.setUserClip(region == null? null: region.getShape());
 }
 
 /** 
@@ -3780,44 +3782,71 @@ public Point textExtent(String string) {
 public Point textExtent(String string, int flags) {
 	if (handle == null) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (string == null) SWT.error (SWT.ERROR_NULL_ARGUMENT);
-	if((flags & SWT.DRAW_TAB) != 0) {
-		string = string.replaceAll("\t", "    ");
-	}
-	int mnemonicIndex = -1;
-	if((flags & SWT.DRAW_MNEMONIC) != 0) {
-		// Copied from Label
-		mnemonicIndex = findMnemonicIndex(string);
-		if(mnemonicIndex > 0) {
-			String s = string.substring(0, mnemonicIndex - 1).replaceAll("&&", "&");
-			string = s + string.substring(mnemonicIndex).replaceAll("&&", "&");
-			mnemonicIndex -= mnemonicIndex - 1 - s.length();
-			mnemonicIndex--;
-		} else {
-			string = string.replaceAll("&&", "&");
-		}
-	}
-	String[] tokens;
-	if((flags & SWT.DRAW_DELIMITER) != 0) {
-		tokens = string.split("\n");
-	} else {
-		tokens = new String[] {string};
-	}
-//	boolean isTransparent = (flags & SWT.DRAW_TRANSPARENT) != 0;
-	java.awt.FontMetrics fm = handle.getFontMetrics();
-	int fmHeight = fm.getHeight();
-	int currentHeight = fmHeight;
-	int maxWidth = 0;
-	int maxHeight = 0;
+	boolean isExpandingTabs = (flags & SWT.DRAW_TAB) != 0;
+	boolean isMnemonic = (flags & SWT.DRAW_MNEMONIC) != 0;
+	boolean isDelimiter = (flags & SWT.DRAW_DELIMITER) != 0;
 	FontRenderContext fontRenderContext = handle.getFontRenderContext();
 	java.awt.Font font = handle.getFont();
-	for(int i=0; i<tokens.length; i++) {
-//		if(!isTransparent) {
-			maxWidth = Math.max(maxWidth, font.getStringBounds(tokens[i], fontRenderContext).getBounds().width);
-			maxHeight = currentHeight;
-//		}
-		currentHeight += fmHeight;
+	// Single pass equivalent of expanding the tabs, removing the mnemonic and splitting the lines like String.split(), which drops trailing empty lines.
+	boolean isMnemonicFound = false;
+	boolean hasDelimiter = false;
+	int maxWidth = 0;
+	int lineCount = 0;
+	int emptyLineCount = 0;
+	StringBuilder sb = null;
+	int segmentStart = 0;
+	int length = string.length();
+	for(int i=0; i<=length; i++) {
+		char c = i < length? string.charAt(i): '\n';
+		if(c == '\n' && (i == length || isDelimiter)) {
+			String line;
+			if(sb == null || sb.length() == 0) {
+				line = string.substring(segmentStart, i);
+			} else {
+				line = sb.append(string, segmentStart, i).toString();
+				sb.setLength(0);
+			}
+			segmentStart = i + 1;
+			if(i < length) {
+				hasDelimiter = true;
+			}
+			if(line.length() == 0) {
+				emptyLineCount++;
+			} else {
+				lineCount += emptyLineCount + 1;
+				emptyLineCount = 0;
+				maxWidth = Math.max(maxWidth, TextExtentCache.getStringWidth(line, font, fontRenderContext));
+			}
+		} else if(c == '\t' && isExpandingTabs) {
+			if(sb == null) {
+				sb = new StringBuilder(length + 8);
+			}
+			sb.append(string, segmentStart, i).append("    ");
+			segmentStart = i + 1;
+		} else if(c == '&' && isMnemonic && i + 1 < length) {
+			boolean isEscaped = string.charAt(i + 1) == '&';
+			if(isEscaped || !isMnemonicFound) {
+				if(sb == null) {
+					sb = new StringBuilder(length);
+				}
+				if(isEscaped) {
+					// Keep the first '&' of the pair.
+					sb.append(string, segmentStart, i + 1);
+					segmentStart = i + 2;
+					i++;
+				} else {
+					isMnemonicFound = true;
+					sb.append(string, segmentStart, i);
+					segmentStart = i + 1;
+				}
+			}
+		}
+	}
+	if(lineCount == 0 && !hasDelimiter) {
+		// A string without delimiters always has one line, even if it is empty.
+		lineCount = 1;
 	}
-	return new Point(maxWidth, maxHeight);
+	return new Point(maxWidth, handle.getFontMetrics().getHeight() * lineCount);
 }
 
 /**
@@ -3874,6 +3903,22 @@ public static GC swing_new(CGC handle, GCData data) {
 	return gc;
 }
 
+/*
+ * Creates a GC on the device that is only used to measure text. It does not look for a
+ * frame to get its graphics from, and its handle returns to a pool when it is disposed.
+ */
+static GC measure_new(Device device) {
+	if (device == null) device = Device.getDevice();
+	if (device == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (device.isDisposed()) SWT.error(SWT.ERROR_DEVICE_DISPOSED);
+	GCData data = new GCData ();
+	GC gc = new GC();
+	gc.device = data.device = device;
+	gc.init(null, data, MeasurementCGC.acquire());
+	if (device.tracking) device.new_Object(gc);
+	return gc;
+}
+
 static final float[] lineDashArray = new float[] {18, 6};
 static final float[] lineDotArray = new float[] {3, 3};
 static final float[] lineDashDotArray = new float[] {9, 6, 3, 6};
@@ -21,7 +21,6 @@ import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsDevice;
 import java.awt.GraphicsEnvironment;
 import java.awt.image.BufferedImage;
-import java.awt.image.ColorModel;
 import java.awt.image.PixelGrabber;
 import java.io.InputStream;
 import javax.swing.GrayFilter;
@@ -31,6 +30,7 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTError;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.internal.swing.CGC;
+import org.eclipse.swt.internal.swing.ImageConverter;
 import org.eclipse.swt.internal.swing.LookAndFeelUtils;
 import org.eclipse.swt.internal.swing.Utils;
 import org.eclipse.swt.widgets.Display;
@@ -791,27 +791,7 @@ public ImageData getImageData() {
 public ImageData getImageData (int zoom) {
 	// TODO: use zoom.
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	ColorModel colorModel = handle.getColorModel();
-	PaletteData paletteData = new PaletteData(0xFF0000, 0xFF00, 0xFF);
-	int width = handle.getWidth();
-	ImageData imageData = new ImageData(width, handle.getHeight(), colorModel.getPixelSize(), paletteData);
-	int height = handle.getHeight();
-	byte[] maskData = new byte[(width + 7) / 8 * height];
-	for(int x=width-1; x >= 0; x--) {
-		for(int y=height-1; y >= 0; y--) {
-			int rgb = handle.getRGB(x, y);
-			int pixel = paletteData.getPixel(new RGB((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF));
-			imageData.setPixel(x, y, pixel);
-			int alpha = (rgb >> 24) & 0xFF;
-			imageData.setAlpha(x, y, alpha);
-			if(alpha != 0) {
-				int index = x + y * ((width + 7) / 8) * 8;
-				maskData[index / 8] |= (byte)(1 << (7 - (index % 8)));
-			}
-		}
-	}
-	imageData.maskPad = 1;
-	imageData.maskData = maskData;
+	ImageData imageData = ImageConverter.readImageData(handle);
 //	ByteArrayOutputStream baos = new ByteArrayOutputStream();
 //	ImageWriter writer = (ImageWriter)ImageIO.getImageWritersBySuffix("jpg").next();
 //	try {
@@ -1228,22 +1208,7 @@ static void init(Device device, Image image, ImageData data) {
 			g.fillRect(0, 0, data.width, data.height);
 		}
 	}
-	ImageData transparencyMask = data.getTransparencyMask();
-	for(int x=image.handle.getWidth()-1; x >= 0; x--) {
-		for(int y=image.handle.getHeight()-1; y >= 0; y--) {
-			RGB rgb = data.palette.getRGB(data.getPixel(x, y));
-			int pixel = rgb.red << 16 | rgb.green << 8 | rgb.blue;
-			rgb = transparencyMask.palette.getRGB(transparencyMask.getPixel(x, y));
-			int mask = rgb.red << 16 | rgb.green << 8 | rgb.blue;
-			if(mask != 0) {
-				int alpha = data.getAlpha(x, y);
-				if(alpha > 0) {
-					pixel = pixel & 0x00FFFFFF | alpha << 24;
-					image.handle.setRGB(x, y, pixel);
-				}
-			}
-		}
-	}
+	ImageConverter.writeImageData(data, image.handle);
 //	SImageData.serialize(image, data);
 //	/*
 //	 * BUG in Windows 98:
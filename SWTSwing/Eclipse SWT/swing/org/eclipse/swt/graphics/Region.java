@@ -17,6 +17,9 @@ package org.eclipse.swt.graphics;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 
 import org.eclipse.swt.*;
 
@@ -34,16 +37,25 @@ import org.eclipse.swt.*;
 public final class Region extends Resource {
 	
 	/**
-	 * the OS resource for the region
-	 * (Warning: This field is platform dependent)
-	 * <p>
-	 * <b>IMPORTANT:</b> This field is <em>not</em> part of the SWT
-	 * public API. It is marked public only so that it can be shared
-	 * within the packages provided by SWT. It is not available on all
-	 * platforms and should never be accessed from application code.
-	 * </p>
+	 * the rectangles of the region when it is only made of
+	 * rectangles, or null when it is described by an area.
+	 * Each rectangle is stored as x1, y1, x2, y2. The rectangles
+	 * are grouped in bands of the same y1 and y2, sorted by y
+	 * and then by x, and the rectangles of a band never touch
+	 * (like the regions of X11 and pixman).
 	 */
-	public Area handle;
+	int[] rects;
+	
+	/**
+	 * the area of the region when it is not only made of
+	 * rectangles, or null when it is described by rectangles.
+	 */
+	Area handle;
+	
+	static final int[] NO_RECTS = new int[0];
+	static final int OP_UNION = 0;
+	static final int OP_INTERSECT = 1;
+	static final int OP_SUBTRACT = 2;
 	
 /**
  * Constructs a new empty region.
@@ -79,7 +91,7 @@ public Region (Device device) {
 	if (device == null) device = Device.getDevice();
 	if (device == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	this.device = device;
-	handle = new Area();
+	rects = NO_RECTS;
 	if (device.tracking) device.new_Object(this);
 }
 
@@ -91,7 +103,209 @@ public Region (Device device) {
  */
 Region(Device device, Shape handle) {
 	this.device = device;
-	this.handle = new Area(handle);
+	if (handle instanceof java.awt.Rectangle) {
+		java.awt.Rectangle rect = (java.awt.Rectangle)handle;
+		rects = toRects(rect.x, rect.y, rect.width, rect.height);
+	} else {
+		setArea(new Area(handle));
+	}
+}
+
+/*
+ * Sets the area of the receiver, going back to rectangles
+ * when the area turns out to be an integer rectangle.
+ */
+void setArea (Area area) {
+	if (area.isEmpty()) {
+		rects = NO_RECTS;
+		handle = null;
+		return;
+	}
+	if (area.isRectangular()) {
+		Rectangle2D bounds = area.getBounds2D();
+		java.awt.Rectangle rect = bounds.getBounds();
+		if (bounds.equals(rect)) {
+			rects = toRects(rect.x, rect.y, rect.width, rect.height);
+			handle = null;
+			return;
+		}
+	}
+	rects = null;
+	handle = area;
+}
+
+/*
+ * Returns the area of the receiver, switching it from
+ * rectangles to an area if needed.
+ */
+Area getArea () {
+	if (handle == null) {
+		handle = new Area(getShape());
+		rects = null;
+	}
+	return handle;
+}
+
+static int[] toRects (int x, int y, int width, int height) {
+	if (width <= 0 || height <= 0) return NO_RECTS;
+	return new int[] {x, y, x + width, y + height};
+}
+
+/*
+ * Combines two lists of banded rectangles. The y coordinates of all the
+ * rectangles cut the plane in horizontal bands, and the spans of each band
+ * are computed by walking the x edges of both lists in order. A band that
+ * has the same spans as the band right above it is merged with it.
+ */
+static int[] combineRects (int[] a, int[] b, int op) {
+	switch (op) {
+		case OP_UNION:
+			if (a.length == 0) return b;
+			if (b.length == 0) return a;
+			break;
+		case OP_INTERSECT:
+			if (a.length == 0 || b.length == 0) return NO_RECTS;
+			break;
+		case OP_SUBTRACT:
+			if (a.length == 0 || b.length == 0) return a;
+			break;
+	}
+	int[] ys = new int[(a.length + b.length) / 2];
+	int yCount = 0;
+	for (int i = 0; i < a.length; i += 4) {
+		ys[yCount++] = a[i + 1];
+		ys[yCount++] = a[i + 3];
+	}
+	for (int i = 0; i < b.length; i += 4) {
+		ys[yCount++] = b[i + 1];
+		ys[yCount++] = b[i + 3];
+	}
+	Arrays.sort(ys);
+	int[] result = new int[a.length + b.length];
+	int length = 0;
+	int previousBand = -1;
+	int ai = 0, bi = 0;
+	for (int i = 0; i < yCount - 1; i++) {
+		int top = ys[i];
+		int bottom = ys[i + 1];
+		if (top == bottom) continue;
+		while (ai < a.length && a[ai + 3] <= top) ai += 4;
+		while (bi < b.length && b[bi + 3] <= top) bi += 4;
+		int aEnd = ai < a.length && a[ai + 1] <= top ? getBandEnd(a, ai) : ai;
+		int bEnd = bi < b.length && b[bi + 1] <= top ? getBandEnd(b, bi) : bi;
+		if (aEnd == ai && bEnd == bi) continue;
+		int band = length;
+		/* The x1 and x2 of consecutive rectangles are 2 indices apart */
+		boolean inA = false, inB = false, inside = false;
+		int pa = ai, pb = bi, start = 0;
+		while (pa < aEnd || pb < bEnd) {
+			int x = pb >= bEnd || (pa < aEnd && a[pa] <= b[pb]) ? a[pa] : b[pb];
+			while (pa < aEnd && a[pa] == x) {
+				inA = !inA;
+				pa += 2;
+			}
+			while (pb < bEnd && b[pb] == x) {
+				inB = !inB;
+				pb += 2;
+			}
+			boolean isInside;
+			switch (op) {
+				case OP_UNION: isInside = inA || inB; break;
+				case OP_INTERSECT: isInside = inA && inB; break;
+				default: isInside = inA && !inB; break;
+			}
+			if (isInside == inside) continue;
+			inside = isInside;
+			if (inside) {
+				start = x;
+			} else {
+				if (length + 4 > result.length) {
+					result = Arrays.copyOf(result, result.length * 2);
+				}
+				result[length++] = start;
+				result[length++] = top;
+				result[length++] = x;
+				result[length++] = bottom;
+			}
+		}
+		if (length == band) continue;
+		if (previousBand != -1 && result[previousBand + 3] == top && band - previousBand == length - band) {
+			boolean isSame = true;
+			for (int j = 0; j < length - band && isSame; j += 4) {
+				isSame = result[previousBand + j] == result[band + j] && result[previousBand + j + 2] == result[band + j + 2];
+			}
+			if (isSame) {
+				for (int j = previousBand + 3; j < band; j += 4) {
+					result[j] = bottom;
+				}
+				length = band;
+				continue;
+			}
+		}
+		previousBand = band;
+	}
+	return length == result.length ? result : Arrays.copyOf(result, length);
+}
+
+static int getBandEnd (int[] rects, int index) {
+	int y1 = rects[index + 1];
+	int end = index + 4;
+	while (end < rects.length && rects[end + 1] == y1) end += 4;
+	return end;
+}
+
+/*
+ * Applies the operation with the given rectangles, or with
+ * the area when the receiver is not made of rectangles.
+ */
+void combine (int[] rects, Area area, int op) {
+	if (this.rects != null && rects != null) {
+		this.rects = combineRects(this.rects, rects, op);
+		handle = null;
+		return;
+	}
+	Area result = getArea();
+	if (area == null) area = new Area(toShape(rects));
+	switch (op) {
+		case OP_UNION: result.add(area); break;
+		case OP_INTERSECT: result.intersect(area); break;
+		default: result.subtract(area); break;
+	}
+	setArea(result);
+}
+
+static Shape toShape (int[] rects) {
+	if (rects.length == 4) {
+		return new java.awt.Rectangle(rects[0], rects[1], rects[2] - rects[0], rects[3] - rects[1]);
+	}
+	Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO, rects.length);
+	for (int i = 0; i < rects.length; i += 4) {
+		path.moveTo(rects[i], rects[i + 1]);
+		path.lineTo(rects[i + 2], rects[i + 1]);
+		path.lineTo(rects[i + 2], rects[i + 3]);
+		path.lineTo(rects[i], rects[i + 3]);
+		path.closePath();
+	}
+	return path;
+}
+
+/**	 
+ * Returns the shape of the region. This is a new shape that
+ * does not change when the region is modified.
+ * <p>
+ * <b>IMPORTANT:</b> This method is <em>not</em> part of the public
+ * API for <code>Region</code>. It is marked public only so that it
+ * can be shared within the packages provided by SWT. It is not
+ * available on all platforms, and should never be called from
+ * application code.
+ * </p>
+ *
+ * @return the shape of the region
+ */
+public Shape getShape () {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (rects != null) return toShape(rects);
+	return (Area)handle.clone();
 }
 
 /**
@@ -119,7 +333,7 @@ public void add (int[] pointArray) {
 		xPoints[i] = pointArray[i * 2];
 		yPoints[i] = pointArray[i * 2 + 1];
 	}
-	handle.add(new Area(new java.awt.Polygon(xPoints, yPoints, xPoints.length)));
+	combine(null, new Area(new java.awt.Polygon(xPoints, yPoints, xPoints.length)), OP_UNION);
 }
 
 /**
@@ -163,7 +377,7 @@ public void add (Rectangle rect) {
 public void add (int x, int y, int width, int height) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (width < 0 || height < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	handle.add(new Area(new java.awt.Rectangle(x, y, width, height)));
+	combine(toRects(x, y, width, height), null, OP_UNION);
 }
 
 /**
@@ -185,7 +399,7 @@ public void add (Region region) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (region == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	if (region.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	handle.add(region.handle);
+	combine(region.rects, region.handle, OP_UNION);
 }
 
 /**
@@ -203,7 +417,12 @@ public void add (Region region) {
  */
 public boolean contains (int x, int y) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	return handle.contains(new java.awt.Point(x, y));
+	if (rects == null) return handle.contains(x, y);
+	for (int i = 0; i < rects.length; i += 4) {
+		if (y < rects[i + 1]) break;
+		if (y < rects[i + 3] && x >= rects[i] && x < rects[i + 2]) return true;
+	}
+	return false;
 }
 
 /**
@@ -233,8 +452,9 @@ public boolean contains (Point pt) {
  * they allocate.
  */
 public void dispose () {
-	if (handle == null) return;
+	if (isDisposed()) return;
 	if (device.isDisposed()) return;
+	rects = null;
 	handle = null;
 	if (device.tracking) device.dispose_Object(this);
 	device = null;
@@ -251,10 +471,7 @@ public void dispose () {
  * @see #hashCode
  */
 public boolean equals (Object object) {
-	if (this == object) return true;
-	if (!(object instanceof Region)) return false;
-	Region rgn = (Region)object;
-	return handle == rgn.handle;
+	return this == object;
 }
 
 /**
@@ -272,8 +489,18 @@ public boolean equals (Object object) {
  */
 public Rectangle getBounds() {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	java.awt.Rectangle bounds = handle.getBounds();
-	return new Rectangle((int)bounds.getX(), (int)bounds.getY(), (int)bounds.getWidth(), (int)bounds.getHeight());
+	if (rects == null) {
+		java.awt.Rectangle bounds = handle.getBounds();
+		return new Rectangle((int)bounds.getX(), (int)bounds.getY(), (int)bounds.getWidth(), (int)bounds.getHeight());
+	}
+	if (rects.length == 0) return new Rectangle(0, 0, 0, 0);
+	int x1 = rects[0], x2 = rects[2];
+	for (int i = 4; i < rects.length; i += 4) {
+		x1 = Math.min(x1, rects[i]);
+		x2 = Math.max(x2, rects[i + 2]);
+	}
+	int y1 = rects[1], y2 = rects[rects.length - 1];
+	return new Rectangle(x1, y1, x2 - x1, y2 - y1);
 }
 
 /**
@@ -287,7 +514,7 @@ public Rectangle getBounds() {
  * @see #equals
  */
 public int hashCode () {
-	return handle == null? 0: handle.hashCode();
+	return isDisposed()? 0: System.identityHashCode(this);
 }
 
 /**
@@ -333,7 +560,7 @@ public void intersect (Rectangle rect) {
 public void intersect (int x, int y, int width, int height) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (width < 0 || height < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	handle.intersect(new Area(new java.awt.Rectangle(x, y, width, height)));
+	combine(toRects(x, y, width, height), null, OP_INTERSECT);
 }
 
 /**
@@ -357,7 +584,7 @@ public void intersect (Region region) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (region == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	if (region.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	handle.intersect(region.handle);
+	combine(region.rects, region.handle, OP_INTERSECT);
 }
 
 /**
@@ -379,7 +606,13 @@ public void intersect (Region region) {
  */
 public boolean intersects (int x, int y, int width, int height) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	return handle.intersects(x, y, width, height);
+	if (rects == null) return handle.intersects(x, y, width, height);
+	if (width <= 0 || height <= 0) return false;
+	for (int i = 0; i < rects.length; i += 4) {
+		if (y + height <= rects[i + 1]) break;
+		if (y < rects[i + 3] && x < rects[i + 2] && x + width > rects[i]) return true;
+	}
+	return false;
 }
 
 /**
@@ -416,7 +649,7 @@ public boolean intersects (Rectangle rect) {
  * @return <code>true</code> when the region is disposed, and <code>false</code> otherwise
  */
 public boolean isDisposed() {
-	return handle == null;
+	return rects == null && handle == null;
 }
 
 /**
@@ -432,7 +665,8 @@ public boolean isDisposed() {
  */
 public boolean isEmpty () {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	return handle.isEmpty();
+	if (rects == null) return handle.isEmpty();
+	return rects.length == 0;
 }
 
 /**
@@ -459,7 +693,7 @@ public void subtract (int[] pointArray) {
 		xPoints[i] = pointArray[i * 2];
 		yPoints[i] = pointArray[i * 2 + 1];
 	}
-	handle.subtract(new Area(new java.awt.Polygon(xPoints, yPoints, xPoints.length)));
+	combine(null, new Area(new java.awt.Polygon(xPoints, yPoints, xPoints.length)), OP_SUBTRACT);
 }
 
 /**
@@ -505,7 +739,7 @@ public void subtract (Rectangle rect) {
 public void subtract (int x, int y, int width, int height) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (width < 0 || height < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);	
-	handle.subtract(new Area(new java.awt.Rectangle(x, y, width, height)));
+	combine(toRects(x, y, width, height), null, OP_SUBTRACT);
 }
 
 /**
@@ -529,7 +763,7 @@ public void subtract (Region region) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (region == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	if (region.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	handle.subtract(region.handle);
+	combine(region.rects, region.handle, OP_SUBTRACT);
 }
 
 /**
@@ -547,7 +781,16 @@ public void subtract (Region region) {
  */
 public void translate (int x, int y) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	handle.transform(AffineTransform.getTranslateInstance(x, y));
+	if (rects == null) {
+		handle.transform(AffineTransform.getTranslateInstance(x, y));
+		return;
+	}
+	int[] translated = new int[rects.length];
+	for (int i = 0; i < rects.length; i += 2) {
+		translated[i] = rects[i] + x;
+		translated[i + 1] = rects[i + 1] + y;
+	}
+	rects = translated;
 }
 
 /**
@@ -579,6 +822,7 @@ public void translate (Point pt) {
  */
 public String toString () {
 	if (isDisposed()) return "Region {*DISPOSED*}";
+	if (rects != null) return "Region {" + rects.length / 4 + " rectangles}";
 	return "Region {" + handle + "}";
 }
 
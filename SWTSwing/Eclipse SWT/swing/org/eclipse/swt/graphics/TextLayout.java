@@ -56,6 +56,8 @@ public final class TextLayout extends Resource {
 	static class StyleItem {
 		TextStyle style;
 		int start, length, width, ascent, descent;
+		/* The x position of each character boundary, from 0 to length included */
+		int[] advances;
 		boolean lineBreak, softBreak, tab;
 		public String toString () {
 			return "StyleItem {" + start + ", " + style + "}";
@@ -99,7 +101,7 @@ void checkLayout () {
 void computeRuns (GC gc) {
 	if (runs != null) return;
 	boolean newGC = gc == null;
-	if (newGC) gc = new GC (device);
+	if (newGC) gc = GC.measure_new (device);
 	StyleItem[] allRuns = itemize();
 	for (int i=0; i<allRuns.length-1; i++) {
 		StyleItem run = allRuns[i];
@@ -153,13 +155,8 @@ void computeRuns (GC gc) {
 			char[] chars = new char[run.length];
 			text.getChars(run.start, run.start + run.length, chars, 0);
 			if (!(run.style != null && run.style.metrics != null)) {
-				int width = 0, maxWidth = wrapWidth - lineWidth;
-				int charWidth = gc.stringExtent(String.valueOf(chars[start])).x;
-				while (width + charWidth < maxWidth) {
-					width += charWidth;
-					start++;
-					charWidth =	gc.stringExtent(String.valueOf(chars[start])).x;
-				}
+				int maxWidth = wrapWidth - lineWidth;
+				start = Math.min(getAdvanceIndex(run.advances, maxWidth), run.length - 1);
 			}
 			int firstStart = start;
 			int firstIndice = i;			
@@ -254,6 +251,32 @@ void computeRuns (GC gc) {
 	if (newGC) gc.dispose();
 }
 
+/*
+ * Returns the x positions of all the character boundaries of the string, the last one
+ * being the width of the string. Glyph vectors map characters to glyphs one to one.
+ */
+int[] computeAdvances (GC gc, String string) {
+	int length = string.length();
+	int[] advances = new int[length + 1];
+	if (length == 0) return advances;
+	java.awt.font.GlyphVector glyphVector = gc.handle.getFont().createGlyphVector(gc.handle.getFontRenderContext(), string);
+	int glyphCount = glyphVector.getNumGlyphs();
+	if (glyphCount != length) {
+		/* Surrogate pairs yield fewer glyphs than characters, so measure each character instead */
+		int width = 0;
+		for (int i=0; i<length; i++) {
+			width += gc.stringExtent(string.substring(i, i + 1)).x;
+			advances[i + 1] = width;
+		}
+		return advances;
+	}
+	float[] positions = glyphVector.getGlyphPositions(0, glyphCount + 1, null);
+	for (int i=1; i<=length; i++) {
+		advances[i] = (int)Math.ceil(positions[i * 2]);
+	}
+	return advances;
+}
+
 /**
  * Disposes of the operating system resources associated with
  * the text layout. Applications must dispose of all allocated text layouts.
@@ -433,10 +456,15 @@ public void draw (GC gc, int x, int y, int selectionStart, int selectionEnd, Col
 							if (partialSelection) {
 								int selStart = Math.max(selectionStart, run.start);
 								int selEnd = Math.min(selectionEnd, end);
-								string = text.substring(run.start, selStart);
-								int selX = drawX + gc.stringExtent(string).x;
+								int selX, selWidth;
+								if (run.advances != null) {
+									selX = drawX + run.advances[selStart - run.start];
+									selWidth = run.advances[selEnd + 1 - run.start] - run.advances[selStart - run.start];
+								} else {
+									selX = drawX + gc.stringExtent(text.substring(run.start, selStart)).x;
+									selWidth = gc.stringExtent(text.substring(selStart, selEnd + 1)).x;
+								}
 								string = text.substring(selStart, selEnd + 1);
-								int selWidth = gc.stringExtent(string).x;
 								gc.setBackground(selectionBackground);
 								gc.fillRectangle(selX, drawY, selWidth, lineHeight);
 								if (fg != selectionForeground && !(run.style != null && run.style.metrics != null)) {
@@ -823,7 +851,7 @@ public FontMetrics getLineMetrics (int lineIndex) {
 	checkLayout();
 	computeRuns(null);
 	if (!(0 <= lineIndex && lineIndex < runs.length)) SWT.error(SWT.ERROR_INVALID_RANGE);
-	GC gc = new GC(device);
+	GC gc = GC.measure_new(device);
 	gc.setFont(this.font != null ? this.font : device.getSystemFont());
 	FontMetrics metrics = gc.getFontMetrics();
 	// This is a bug in SWT: the leading is omited...
@@ -901,11 +929,7 @@ public Point getLocation (int offset, boolean trailing) {
 						GlyphMetrics metrics = run.style.metrics;
 						width += metrics.width * (offset - run.start);
 					} else {
-						String string = text.substring(run.start, offset);
-						GC gc = new GC (device);
-						gc.setFont(getItemFont(run));
-						width += gc.stringExtent(string).x;
-						gc.dispose();
+						width += run.advances[offset - run.start];
 					}
 				}
 				result = new Point(width, lineY[line]);
@@ -929,6 +953,23 @@ Font getItemFont(StyleItem item) {
 	return device.getSystemFont();
 }
 
+/*
+ * Returns the index of the first character whose trailing edge is at or after x,
+ * or the number of characters if the whole run ends before x.
+ */
+int getAdvanceIndex (int[] advances, int x) {
+	int low = 0, high = advances.length - 1;
+	while (low < high) {
+		int mid = (low + high) >>> 1;
+		if (advances[mid + 1] < x) {
+			low = mid + 1;
+		} else {
+			high = mid;
+		}
+	}
+	return low;
+}
+
 /**
  * Returns the next offset for the specified offset and movement
  * type.  The movement is one of <code>SWT.MOVEMENT_CHAR</code>, 
@@ -1060,22 +1101,12 @@ public int getOffset (int x, int y, int[] trailing) {
 				}
 				return run.start;
 			}
-			int offset = 0;
-			GC gc = new GC(device);
-			gc.setFont(getItemFont(run));
-			char[] chars = new char[run.length];
-			text.getChars(run.start, run.start + run.length, chars, 0);
-			for (offset = 0; offset < chars.length; offset++) {
-				int charWidth = gc.stringExtent(String.valueOf(chars[offset])).x;
-				if (width + charWidth > x) {
-					if (trailing != null) {
-						trailing[0] = x < (width + charWidth / 2) ? 0 : 1;
-					}
-					break;
-				}
-				width += charWidth;
+			int[] advances = run.advances;
+			int offset = getAdvanceIndex(advances, x - width + 1);
+			if (offset < run.length && trailing != null) {
+				int charWidth = advances[offset + 1] - advances[offset];
+				trailing[0] = x < (width + advances[offset] + charWidth / 2) ? 0 : 1;
 			}
-			gc.dispose();
 			return run.start + offset; 
 		}
 		width += run.width;
@@ -1502,9 +1533,11 @@ void place (GC gc, StyleItem run) {
 		run.ascent = metrics.ascent;
 		run.descent = metrics.descent;
 		run.width = metrics.width * run.length;
+		run.advances = null;
 	} else {
 		String string = text.substring(run.start, run.start + run.length);
 		Point extent = gc.stringExtent(string);
+		run.advances = computeAdvances(gc, string);
 		FontMetrics metrics = gc.getFontMetrics();
 		run.width = extent.x;
 		run.ascent = metrics.getAscent() + metrics.getLeading();
@@ -554,6 +554,7 @@ public void setImage (Image image) {
 		icon = new ImageIcon (image.handle);
 	}
 	((CButton) handle).setIcon (icon);
+	flushSizeCache ();
 }
 
 boolean setRadioFocus () {
@@ -657,6 +658,7 @@ public void setText (String string) {
 		cButton.setMnemonic(string.charAt(mnemonicIndex));
 	}
 	cButton.setDisplayedMnemonicIndex(mnemonicIndex);
+	flushSizeCache ();
 }
 
 //int widgetStyle () {
@@ -14,10 +14,10 @@
 package org.eclipse.swt.widgets;
 
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.Frame;
+import java.awt.Window;
 
-import javax.swing.Timer;
+import javax.swing.SwingUtilities;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -26,7 +26,7 @@ import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
-import org.eclipse.swt.internal.swing.LookAndFeelUtils;
+import org.eclipse.swt.internal.swing.CControl;
 
 /**
  * Instances of this class provide an i-beam that is typically used
@@ -92,31 +92,61 @@ void createWidget () {
 	}
 }
 
-Timer timer = new Timer (LookAndFeelUtils.getCaretBlinkRate(), new ActionListener () {
-	public void actionPerformed (ActionEvent e) {
-		Caret.this.blink = !Caret.this.blink;
-		if (Caret.this.parent != null && Caret.this.parent.caret == Caret.this) {
-			// XXX redraw rect is not correct. for now, redraw all.
-			// Rectangle r = Caret.this.getBounds();
-			// Caret.this.parent.redraw(x, r.y, r.width, r.height, true);
-			// redraw causes GC to throw exceptions in some conditions. Let's directly call the Swing component
-			Caret.this.parent.handle.repaint();
-		} else {
-			timer.stop();
-		}
+/*
+* The carets are blinked by a timer shared on the display, and only
+* the area of the caret is repainted. Blinking is paused, with the caret
+* shown, while the window of the caret is not active.
+*/
+private boolean blink;
+
+void startBlinking () {
+	blink = true;
+	repaintCaret ();
+	display.addBlinkingCaret (this);
+}
+
+void stopBlinking () {
+	display.removeBlinkingCaret (this);
+	blink = true;
+	repaintCaret ();
+}
+
+void blink () {
+	if (parent == null || parent.isDisposed () || parent.caret != this) {
+		display.removeBlinkingCaret (this);
+		return;
 	}
-}) {
-	public void stop() {
-		super.stop();
-		blink = true;
-		if(Caret.this.parent != null) {
-//			Caret.this.parent.redraw ();
-			Caret.this.parent.handle.repaint();
+	if (!isWindowActive ()) {
+		if (!blink) {
+			blink = true;
+			repaintCaret ();
 		}
+		return;
 	}
-};
+	blink = !blink;
+	repaintCaret ();
+}
 
-private boolean blink;
+boolean isWindowActive () {
+	Window window = SwingUtilities.getWindowAncestor (parent.handle);
+	if (window == null || !window.isActive ()) return false;
+	return !(window instanceof Frame) || (((Frame) window).getExtendedState () & Frame.ICONIFIED) == 0;
+}
+
+void repaintCaret () {
+	// redraw causes GC to throw exceptions in some conditions. Let's directly call the Swing component
+	if (parent == null || parent.isDisposed ()) return;
+	int width = Math.max (1, this.width);
+	int height = this.height;
+	Image image = this.image;
+	if (image != null && !image.isDisposed ()) {
+		Rectangle rect = image.getBounds ();
+		width = Math.max (width, rect.width);
+		height = Math.max (height, rect.height);
+	}
+	Point offset = parent.getInternalOffset ();
+	((CControl) parent.handle).getClientArea ().repaint (x - offset.x - 1, y - offset.y - 1, width + 2, height + 2);
+}
 
 void paintCaret (GC gc) {
 	if (blink && isVisible()) {
@@ -306,7 +336,7 @@ public boolean isVisible () {
 }
 
 void killFocus () {
-	timer.stop ();
+	stopBlinking ();
 //	OS.DestroyCaret ();
 //	if (font != null) restoreIMEFont ();
 }
@@ -346,6 +376,7 @@ void releaseParent () {
 
 void releaseWidget () {
 	super.releaseWidget ();
+	display.removeBlinkingCaret (this);
 	parent = null;
 	image = null;
 	font = null;
@@ -407,7 +438,7 @@ public void setBounds (int x, int y, int width, int height) {
 	boolean samePosition = this.x == x && this.y == y;
 	boolean sameExtent = this.width == width && this.height == height;
 	if (samePosition && sameExtent) return;
-	timer.stop();
+	stopBlinking ();
 	this.x = x;  this.y = y;
 	this.width = width;  this.height = height;
 	if (sameExtent) {
@@ -417,7 +448,7 @@ public void setBounds (int x, int y, int width, int height) {
 		resized = true;
 		if (isVisible && hasFocus ()) resize ();
 	}
-	timer.start();
+	startBlinking ();
 }
 
 /**
@@ -439,7 +470,7 @@ public void setBounds (Rectangle rect) {
 }
 
 void setFocus () {
-	timer.start ();
+	startBlinking ();
 //TODO
 //	int hwnd = parent.handle;
 //	int hBitmap = 0;
@@ -539,11 +570,11 @@ void setIMEFont (int hFont) {
 public void setLocation (int x, int y) {
 	checkWidget();
 	if (this.x == x && this.y == y) return;
-	timer.stop();
+	stopBlinking ();
 	this.x = x;  this.y = y;
 	moved = true;
 	if (isVisible && hasFocus ()) move ();
-	timer.start();
+	startBlinking ();
 }
 
 /**
@@ -622,6 +653,7 @@ public void setVisible (boolean visible) {
 	checkWidget ();
 	if (visible == isVisible) return;
 	isVisible = visible;
+	repaintCaret ();
 //TODO
 //	checkWidget();
 //	if (visible == isVisible) return;
@@ -1003,11 +1003,7 @@ public void setItems (String [] items) {
 		if (items [i] == null) error (SWT.ERROR_INVALID_ARGUMENT);
 	}
 	isAdjustingSelection = true;
-	CCombo cCombo = (CCombo)handle;
-	cCombo.removeAllItems();
-	for (int i=0; i<items.length; i++) {
-		cCombo.addItem(items[i]);
-	}
+	((CCombo)handle).setItems(items);
 	isAdjustingSelection = false;
 	// widget could be disposed at this point
 	sendEvent (SWT.Modify);
@@ -64,6 +64,7 @@ public class Composite extends Scrollable {
 //	WINDOWPOS [] lpwp;
 	Control [] tabList;
 	int layoutCount = 0;
+	java.awt.Dimension layoutSize;
 	
 /**
  * Prevents uninitialized instances from being created outside the package.
@@ -208,12 +209,18 @@ Control [] computeTabList () {
 
 public Point computeSize (int wHint, int hHint, boolean changed) {
 	checkWidget ();
-	Point size;
+	changed |= (state & LAYOUT_CHANGED) != 0;
+	Point size = getCachedSize (wHint, hHint, changed);
+	if (size != null) return size;
 	if (layout != null) {
 		if (wHint == SWT.DEFAULT || hHint == SWT.DEFAULT) {
-			changed |= (state & LAYOUT_CHANGED) != 0;
 			state &= ~LAYOUT_CHANGED;
-			size = layout.computeSize (this, wHint, hHint, changed);
+			display.startSizeCachePass ();
+			try {
+				size = layout.computeSize (this, wHint, hHint, changed);
+			} finally {
+				display.stopSizeCachePass ();
+			}
 		} else {
 			size = new Point (wHint, hHint);
 		}
@@ -225,7 +232,9 @@ public Point computeSize (int wHint, int hHint, boolean changed) {
 	if (wHint != SWT.DEFAULT) size.x = wHint;
 	if (hHint != SWT.DEFAULT) size.y = hHint;
 	Rectangle trim = computeTrim (0, 0, size.x, size.y);
-	return new Point (trim.width, trim.height);
+	size = new Point (trim.width, trim.height);
+	cacheSize (wHint, hHint, size);
+	return size;
 }
 
 void createHandleInit () {
@@ -781,6 +790,7 @@ public boolean setFocus () {
 public void setLayout (Layout layout) {
 	checkWidget ();
 	this.layout = layout;
+	flushSizeCache ();
 }
 
 /**
@@ -943,7 +953,12 @@ void updateLayout (boolean resize, boolean all) {
 		boolean changed = (state & LAYOUT_CHANGED) != 0;
 		state &= ~(LAYOUT_NEEDED | LAYOUT_CHANGED);
 //		if (resize) setResizeChildren (false);
-		layout.layout (this, changed);
+		display.startSizeCachePass ();
+		try {
+			layout.layout (this, changed);
+		} finally {
+			display.stopSizeCachePass ();
+		}
 //		if (resize) setResizeChildren (true);
 	}
 	if (all) {
@@ -954,6 +969,38 @@ void updateLayout (boolean resize, boolean all) {
 	}
 }
 
+/*
+* Lays out the receiver if its size changed since it was last laid out
+* this way, and then the children that this layout resized. Their own
+* resize events then find them already laid out with their new size.
+*/
+void updateResizeLayout () {
+	state &= ~LAYOUT_SCHEDULED;
+	if (layout == null) return;
+	java.awt.Dimension size = handle.getSize ();
+	if (size.equals (layoutSize)) return;
+	markLayout (false, false);
+	if (isLayoutDeferred ()) return;
+	layoutSize = size;
+	updateLayout (false, false);
+	display.resizeLayoutCount++;
+//	((CControl)handle).getClientArea().invalidate();
+//	handle.validate();
+//	if(handle instanceof JComponent) {
+//		((JComponent)handle).revalidate();
+//	} else {
+//		handle.invalidate();
+//		handle.validate();
+//	}
+	handle.repaint ();
+	Control [] children = _getChildren ();
+	for (int i=0; i<children.length; i++) {
+		if (children [i] instanceof Composite && !children [i].isDisposed ()) {
+			((Composite) children [i]).updateResizeLayout ();
+		}
+	}
+}
+
 //int widgetStyle () {
 //	/* Force clipping of children by setting WS_CLIPCHILDREN */
 //	return super.widgetStyle () | OS.WS_CLIPCHILDREN;
@@ -1390,18 +1437,8 @@ public void processEvent(AWTEvent e) {
 	try {
 		switch(id) {
 		case ComponentEvent.COMPONENT_RESIZED:
-			if(layout != null) {
-				markLayout(false, false);
-				updateLayout(false, false);
-//				((CControl)handle).getClientArea().invalidate();
-//				handle.validate();
-//				if(handle instanceof JComponent) {
-//					((JComponent)handle).revalidate();
-//				} else {
-//					handle.invalidate();
-//					handle.validate();
-//				}
-				handle.repaint();
+			if(layout != null && !handle.getSize().equals(layoutSize)) {
+				display.scheduleLayout(this);
 			}
 			break;
 		}
@@ -18,6 +18,7 @@ import java.awt.AWTEvent;
 import java.awt.Component;
 import java.awt.Container;
 import java.awt.Dimension;
+import java.awt.EventQueue;
 import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.Insets;
@@ -27,6 +28,7 @@ import java.awt.Window;
 import java.awt.event.ComponentEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseWheelEvent;
+import java.util.ArrayList;
 import java.util.EventObject;
 
 import javax.swing.JComponent;
@@ -649,6 +651,14 @@ public Point computeSize (int wHint, int hHint) {
  */
 public Point computeSize (int wHint, int hHint, boolean changed) {
 	checkWidget ();
+	Point size = getCachedSize (wHint, hHint, changed);
+	if (size != null) return size;
+	size = computeHandleSize (wHint, hHint);
+	cacheSize (wHint, hHint, size);
+	return size;
+}
+
+Point computeHandleSize (int wHint, int hHint) {
 	//TODO: it seems that for some components we have to take the border into account (Shell), and for others not (Button).
 	// Let's assume for a start that we don't take that into account if the component is the same as the client area.
 	Container clientArea = ((CControl)handle).getClientArea();
@@ -670,6 +680,58 @@ public Point computeSize (int wHint, int hHint, boolean changed) {
 	return new Point (width, height);
 }
 
+/*
+* Layouts ask the same children for their size several times during a
+* pass, so the sizes computed during a layout pass of the display are
+* cached, for a few hints. The cache is only trusted during the pass
+* in which it was filled, and is flushed along with the one of the
+* parents when the size of the receiver may change during a pass.
+*/
+Point getCachedSize (int wHint, int hHint, boolean changed) {
+	if (display.sizeCachePassDepth == 0) return null;
+	if (!changed && sizeCacheGeneration == display.sizeCacheGeneration) {
+		for (int i=0; i<sizeCacheCount; i+=4) {
+			if (sizeCache [i] == wHint && sizeCache [i + 1] == hHint) {
+				display.sizeCacheHitCount++;
+				return new Point (sizeCache [i + 2], sizeCache [i + 3]);
+			}
+		}
+	}
+	display.sizeCacheMissCount++;
+	return null;
+}
+
+void cacheSize (int wHint, int hHint, Point size) {
+	if (display.sizeCachePassDepth == 0) return;
+	if (sizeCacheGeneration != display.sizeCacheGeneration) {
+		sizeCacheGeneration = display.sizeCacheGeneration;
+		sizeCacheCount = 0;
+	}
+	if (sizeCache == null) sizeCache = new int [SIZE_CACHE_LENGTH];
+	int index = sizeCacheCount;
+	for (int i=0; i<sizeCacheCount; i+=4) {
+		if (sizeCache [i] == wHint && sizeCache [i + 1] == hHint) {
+			index = i;
+			break;
+		}
+	}
+	if (index == SIZE_CACHE_LENGTH) {
+		System.arraycopy (sizeCache, 4, sizeCache, 0, SIZE_CACHE_LENGTH - 4);
+		index -= 4;
+	}
+	sizeCache [index] = wHint;
+	sizeCache [index + 1] = hHint;
+	sizeCache [index + 2] = size.x;
+	sizeCache [index + 3] = size.y;
+	sizeCacheCount = Math.max (sizeCacheCount, index + 4);
+}
+
+void flushSizeCache () {
+	for (Control control = this; control != null; control = control.parent) {
+		control.sizeCacheCount = 0;
+	}
+}
+
 Control computeTabGroup () {
 	if (isTabGroup ()) return this;
 	return parent.computeTabGroup ();
@@ -731,6 +793,7 @@ void createWidget () {
 		if(parent.autoAddChildren()) {
 			addToParent();
 		}
+		parent.flushSizeCache ();
 //		if(parent instanceof Shell && parent.getChildren().length == 0) {
 //			handle.requestFocus();
 //		}
@@ -2065,6 +2128,7 @@ void releaseParent () {
 		((JComponent)parent).revalidate();
 		parent.repaint();
 	}
+	this.parent.flushSizeCache ();
 	this.parent.removeControl (this);
 }
 
@@ -2901,6 +2965,7 @@ public void setFont (Font font) {
 	} else {
 	  ((CControl)handle).getUserAttributeHandler().setFont(null);
 	}
+	flushSizeCache ();
 	handle.repaint();
 }
 
@@ -2947,6 +3012,7 @@ public void setForeground (Color color) {
 public void setLayoutData (Object layoutData) {
 	checkWidget ();
 	this.layoutData = layoutData;
+	flushSizeCache ();
 }
 
 /**
@@ -3110,7 +3176,29 @@ boolean setRadioSelection (boolean value) {
  */
 public void setRedraw (boolean redraw) {
 	checkWidget ();
-	handle.setIgnoreRepaint(!redraw);
+	if (redraw) {
+		if (drawCount == 0 || --drawCount > 0) return;
+		handle.setIgnoreRepaint(false);
+		resumeRedraw ();
+		if (handle instanceof JComponent) {
+			((JComponent)handle).revalidate();
+		}
+		handle.repaint();
+	} else {
+		if (drawCount++ > 0) return;
+		handle.setIgnoreRepaint(true);
+		suspendRedraw ();
+	}
+}
+
+/*
+* Called when the drawing of the receiver is turned off, so that the
+* changes that follow can be batched until resumeRedraw () is called.
+*/
+void suspendRedraw () {
+}
+
+void resumeRedraw () {
 }
 
 //boolean setSavedFocus () {
@@ -4673,58 +4761,26 @@ public boolean setParent (Composite parent) {
 //	return null;
 //}
 
-private volatile long mouseHoverTimeStamp;
-private volatile Thread mouseHoverThread;
-private java.awt.event.MouseEvent mouseHoverEvent;
-
 void adjustMouseHoverState(java.awt.event.MouseEvent me) {
-	mouseHoverTimeStamp = System.currentTimeMillis() + 500;
-	mouseHoverEvent = me;
-	if(mouseHoverThread == null) {
-		mouseHoverThread = new Thread("Mouse Hover Thread") {
-			public void run() {
-				while(mouseHoverThread == this) {
-					try {
-						sleep(Math.max(50, mouseHoverTimeStamp - System.currentTimeMillis()));
-					} catch(Exception e) {}
-					if(mouseHoverThread != this) {
-						return;
-					}
-					if(mouseHoverTimeStamp - System.currentTimeMillis() < 0) {
-						final Thread t = this;
-						SwingUtilities.invokeLater(new Runnable() {
-							public void run() {
-								if(mouseHoverThread != t) {
-									return;
-								}
-								if(mouseHoverTimeStamp - System.currentTimeMillis() < 0) {
-									mouseHoverThread = null;
-									java.awt.event.MouseEvent me = mouseHoverEvent;
-									mouseHoverEvent = null;
-									// TODO: the point is incorrect when the wheel mouse is used: cf snippet125
-									if(!isDisposed() && me.getComponent().contains(me.getPoint())) {
-										UIThreadUtils.startExclusiveSection(getDisplay());
-										if(isDisposed()) {
-											UIThreadUtils.stopExclusiveSection();
-											return;
-										}
-										try {
-											sendMouseEvent(SWT.MouseHover, createMouseEvent(me, false));
-										} catch(Throwable t) {
-											UIThreadUtils.storeException(t);
-										} finally {
-											UIThreadUtils.stopExclusiveSection();
-										}
-									}
-								}
-							}
-						});
-					}
-				}
-			}
-		};
-		mouseHoverThread.setDaemon(true);
-		mouseHoverThread.start();
+	display.armMouseHover(this, me);
+}
+
+void sendMouseHover(java.awt.event.MouseEvent me) {
+	// TODO: the point is incorrect when the wheel mouse is used: cf snippet125
+	if(isDisposed() || !me.getComponent().contains(me.getPoint())) {
+		return;
+	}
+	UIThreadUtils.startExclusiveSection(getDisplay());
+	if(isDisposed()) {
+		UIThreadUtils.stopExclusiveSection();
+		return;
+	}
+	try {
+		sendMouseEvent(SWT.MouseHover, createMouseEvent(me, false));
+	} catch(Throwable t) {
+		UIThreadUtils.storeException(t);
+	} finally {
+		UIThreadUtils.stopExclusiveSection();
 	}
 }
 
@@ -4749,6 +4805,49 @@ static Runnable focusLostRunnable;
 
 boolean isAdjustingSize;
 static boolean isDragging;
+int drawCount;
+
+/* The sizes computed during a layout pass, as wHint, hHint, width and height */
+int [] sizeCache;
+int sizeCacheCount, sizeCacheGeneration;
+static final int SIZE_CACHE_LENGTH = 4 * 4;
+
+/* The locations of the mouse motion events collapsed into the next one that is sent */
+ArrayList<Point> coalescedMouseLocations;
+static final int[] MOUSE_MOTION_BARRIER_IDS = {
+	java.awt.event.MouseEvent.MOUSE_PRESSED,
+	java.awt.event.MouseEvent.MOUSE_RELEASED,
+	java.awt.event.MouseEvent.MOUSE_EXITED,
+	java.awt.event.MouseEvent.MOUSE_WHEEL,
+	java.awt.event.KeyEvent.KEY_PRESSED,
+	java.awt.event.KeyEvent.KEY_RELEASED,
+};
+
+/*
+ * Returns whether a more recent motion event is pending for the same
+ * component, in which case the location of this one is kept for the
+ * event that is going to be sent instead. Motion events are only collapsed
+ * when no other input event is pending, so that such an event is always
+ * sent after the motion events that preceded it.
+ */
+boolean coalesceMouseMotion(java.awt.event.MouseEvent me) {
+	if(Utils.capturedControl != null && Utils.capturedControl != this) return false;
+	int id = me.getID();
+	// The first drag event is the one that triggers the drag detection.
+	if(id == java.awt.event.MouseEvent.MOUSE_DRAGGED && !isDragging) return false;
+	EventQueue eventQueue = Toolkit.getDefaultToolkit().getSystemEventQueue();
+	AWTEvent nextEvent = eventQueue.peekEvent(id);
+	if(nextEvent == null || nextEvent.getSource() != me.getSource()) return false;
+	for(int i=0; i<MOUSE_MOTION_BARRIER_IDS.length; i++) {
+		if(eventQueue.peekEvent(MOUSE_MOTION_BARRIER_IDS[i]) != null) return false;
+	}
+	if(coalescedMouseLocations == null) {
+		coalescedMouseLocations = new ArrayList<Point>();
+	}
+	coalescedMouseLocations.add(getMouseLocation(me));
+	display.coalescedMouseMotionCount++;
+	return true;
+}
 
 /**
  * The entry point for callbacks 
@@ -4772,8 +4871,8 @@ public void processEvent(AWTEvent e) {
 		break;
 	}
 	case java.awt.event.PaintEvent.PAINT: if(!hooks(SWT.Paint)) return; break;
-	case java.awt.event.MouseEvent.MOUSE_DRAGGED: if(Utils.capturedControl == null && !hooks(SWT.DragDetect) && !hooks(SWT.MouseMove) && !hooks(SWT.MouseHover)) return; break;
-	case java.awt.event.MouseEvent.MOUSE_MOVED: if(Utils.capturedControl == null && !hooks(SWT.MouseMove) && !hooks(SWT.MouseHover)) return; break;
+	case java.awt.event.MouseEvent.MOUSE_DRAGGED: if(Utils.capturedControl == null && !hooks(SWT.DragDetect) && !hooks(SWT.MouseMove) && !hooks(SWT.MouseHover) && !filters(SWT.MouseHover)) return; if(display.coalesceMouseMotion && coalesceMouseMotion((java.awt.event.MouseEvent)e)) return; break;
+	case java.awt.event.MouseEvent.MOUSE_MOVED: if(Utils.capturedControl == null && !hooks(SWT.MouseMove) && !hooks(SWT.MouseHover) && !filters(SWT.MouseHover)) return; if(display.coalesceMouseMotion && coalesceMouseMotion((java.awt.event.MouseEvent)e)) return; break;
 	case java.awt.event.MouseEvent.MOUSE_PRESSED: {
 		if(Utils.capturedControl == null && !hooks(SWT.MouseDown) && menu == null && (!hooks(SWT.MenuDetect) || !((java.awt.event.MouseEvent)e).isPopupTrigger())) return;
 		break;
@@ -4801,7 +4900,7 @@ public void processEvent(AWTEvent e) {
 		break;
 	}
 	case java.awt.event.MouseEvent.MOUSE_ENTERED: if(!hooks(SWT.MouseEnter)) return; break;
-	case java.awt.event.MouseEvent.MOUSE_EXITED: if(!hooks(SWT.MouseExit)) {mouseHoverThread = null; return;} break;
+	case java.awt.event.MouseEvent.MOUSE_EXITED: coalescedMouseLocations = null; if(!hooks(SWT.MouseExit)) {display.cancelMouseHover(this); return;} break;
 	case java.awt.event.KeyEvent.KEY_PRESSED: {
 //		if(!hooks(SWT.KeyDown) && !hooks(SWT.Traverse) && !isTraversalKey((java.awt.event.KeyEvent)e)) {
 //			return;
@@ -4856,7 +4955,12 @@ public void processEvent(AWTEvent e) {
 		}
 		case java.awt.event.MouseEvent.MOUSE_MOVED: {
 			java.awt.event.MouseEvent me = (java.awt.event.MouseEvent)e;
-			sendMouseEvent(SWT.MouseMove, createMouseEvent(me, false));
+			Event event = createMouseEvent(me, false);
+			if(coalescedMouseLocations != null) {
+				event.data = coalescedMouseLocations.toArray(new Point[0]);
+				coalescedMouseLocations = null;
+			}
+			sendMouseEvent(SWT.MouseMove, event);
 			adjustMouseHoverState(me);
 			break;
 		}
@@ -4896,7 +5000,7 @@ public void processEvent(AWTEvent e) {
 		}
 		case java.awt.event.MouseEvent.MOUSE_ENTERED: sendEvent(SWT.MouseEnter, createMouseEvent((java.awt.event.MouseEvent)e, false)); break;
 		case java.awt.event.MouseEvent.MOUSE_EXITED:
-			mouseHoverThread = null;
+			display.cancelMouseHover(this);
 			sendEvent(SWT.MouseExit, createMouseEvent((java.awt.event.MouseEvent)e, false));
 			break;
 		case java.awt.event.KeyEvent.KEY_TYPED: {
@@ -5117,11 +5221,7 @@ private void showPopup(java.awt.event.MouseEvent e) {
 	}
 }
 
-Event createMouseEvent(java.awt.event.MouseEvent me, boolean isPreviousInputState) {
-	if(me == null) {
-		return null;
-	}
-	Event event = new Event();
+Point getMouseLocation(java.awt.event.MouseEvent me) {
 	Container container = handle;
 	java.awt.Point point = me.getPoint();
 	Component component = me.getComponent();
@@ -5132,8 +5232,17 @@ Event createMouseEvent(java.awt.event.MouseEvent me, boolean isPreviousInputStat
 		point = SwingUtilities.convertPoint(component, point, ((CControl)handle).getClientArea());
 	}
 	Point offset = getInternalOffset();
-	event.x = point.x + offset.x;
-	event.y = point.y + offset.y;
+	return new Point(point.x + offset.x, point.y + offset.y);
+}
+
+Event createMouseEvent(java.awt.event.MouseEvent me, boolean isPreviousInputState) {
+	if(me == null) {
+		return null;
+	}
+	Event event = new Event();
+	Point point = getMouseLocation(me);
+	event.x = point.x;
+	event.y = point.y;
 	if (SwingUtilities.isLeftMouseButton (me)) {
 		event.button = 1;
 	} else if (SwingUtilities.isRightMouseButton (me)) {
@@ -32,16 +32,18 @@ import java.awt.SystemTray;
 import java.awt.Toolkit;
 import java.awt.Window;
 import java.awt.event.AWTEventListener;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Objects;
 import java.util.Set;
-import java.util.Vector;
 import java.util.function.Consumer;
 
 import javax.swing.Icon;
@@ -67,6 +69,7 @@ import org.eclipse.swt.internal.swing.CControl;
 import org.eclipse.swt.internal.swing.CGC;
 import org.eclipse.swt.internal.swing.CShell;
 import org.eclipse.swt.internal.swing.NullGraphics2D;
+import org.eclipse.swt.internal.swing.TimerWheel;
 import org.eclipse.swt.internal.swing.UIThreadUtils;
 import org.eclipse.swt.internal.swing.LookAndFeelUtils;
 import org.eclipse.swt.internal.swing.Utils;
@@ -149,13 +152,41 @@ import org.eclipse.swt.internal.swing.Utils;
 
 public class Display extends Device {
 
+	/* Deferred events, in a circular buffer whose length is a power of 2 */
 	Event [] eventQueue;
+	int eventQueueHead, eventQueueSize, eventQueueHighWaterMark;
+	static final int EVENT_QUEUE_INITIAL_LENGTH = 16;
+	static final int EVENT_QUEUE_RETAINED_LENGTH = 1024;
 	EventTable eventTable, filterTable;
-	Vector<Runnable> timerList = new Vector<>();
+	TimerWheel timerWheel = new TimerWheel ("Display.timerExecThread");
+
+	/* Composites to lay out because they were resized */
+	ArrayList<Composite> layoutQueue = new ArrayList<>();
+	boolean isLayoutQueueScheduled;
+	long layoutPassCount, resizeLayoutCount;
+
+	/* Size cache of the controls, valid during a layout pass */
+	int sizeCachePassDepth, sizeCacheGeneration;
+	long sizeCacheHitCount, sizeCacheMissCount;
+
+	/* Caret blinking */
+	ArrayList<Caret> blinkingCarets = new ArrayList<>();
+	javax.swing.Timer caretTimer;
+
+	/* Mouse motion coalescing */
+	static final String COALESCE_MOUSE_MOTION_KEY = "org.eclipse.swt.swing.coalesceMouseMotion"; //$NON-NLS-1$
+	boolean coalesceMouseMotion;
+	long coalescedMouseMotionCount;
+	
+	/* Virtual items */
+	static final String VIRTUAL_ITEM_LIMIT_KEY = "org.eclipse.swt.swing.virtualItemLimit"; //$NON-NLS-1$
+	static final String VIRTUAL_PREFETCH_COUNT_KEY = "org.eclipse.swt.swing.virtualPrefetchCount"; //$NON-NLS-1$
+	int virtualItemLimit, virtualPrefetchCount;
+	long virtualItemMaterializationCount, virtualItemEvictionCount;
 	
 	/* Menus */
 	Menu [] bars, popups;
-	ArrayList<MenuItem> menuItemsList = new ArrayList<>();
+	static final Object MENU_ITEM_KEY = new Object ();
 	
 //	static final String AWT_WINDOW_CLASS = "SunAwtWindow";
 
@@ -178,6 +209,18 @@ public class Display extends Device {
 	/* System Cursors Cache */
 	Cursor [] cursors = new Cursor [SWT.CURSOR_HAND + 1];
 
+	/* Mouse Hover */
+	static final int MOUSE_HOVER_DELAY = 500;
+	Control mouseHoverControl;
+	java.awt.event.MouseEvent mouseHoverEvent;
+	long mouseHoverDeadline;
+	boolean isMouseHoverArmed;
+	final Runnable mouseHoverRunnable = new Runnable () {
+		public void run () {
+			runMouseHover ();
+		}
+	};
+
 	/* Display Data */
 	Object data;
 	String [] keys;
@@ -263,6 +306,42 @@ public class Display extends Device {
 		
 	};
 
+	/*
+	* Lookup tables built from the key table, where the first mapping
+	* of a key wins: the AWT key codes in ascending order with their
+	* SWT keys, and the SWT keys in ascending order with their AWT key
+	* codes. The AWT key codes go up to VK_F24, so a table indexed by
+	* key code would be mostly empty.
+	*/
+	static final int [] SortedAWTKeys, SortedAWTToSWTKeys;
+	static final int [] SortedSWTKeys, SortedSWTToAWTKeys;
+	static {
+		int [] [] table = sortKeyTable (0);
+		SortedAWTKeys = table [0];
+		SortedAWTToSWTKeys = table [1];
+		table = sortKeyTable (1);
+		SortedSWTKeys = table [1];
+		SortedSWTToAWTKeys = table [0];
+	}
+
+	static int [] [] sortKeyTable (int column) {
+		int [] [] sortedTable = KeyTable.clone ();
+		/* The sort is stable, so the first mapping of a key comes first */
+		Arrays.sort (sortedTable, (entry1, entry2) -> Integer.compare (entry1 [column], entry2 [column]));
+		int [] awtKeys = new int [sortedTable.length];
+		int [] swtKeys = new int [sortedTable.length];
+		int count = 0;
+		for (int i=0; i<sortedTable.length; i++) {
+			int [] entry = sortedTable [i];
+			boolean isDuplicate = i > 0 && sortedTable [i - 1] [column] == entry [column];
+			if (isDuplicate) continue;
+			awtKeys [count] = entry [0];
+			swtKeys [count] = entry [1];
+			count++;
+		}
+		return new int [] [] {Arrays.copyOf (awtKeys, count), Arrays.copyOf (swtKeys, count)};
+	}
+
 	/* Multiple Displays */
 	static Display Default;
 	static Display [] Displays = new Display [4];
@@ -451,9 +530,38 @@ void addBar (Menu menu) {
 	bars [index] = menu;
 }
 
+void addBlinkingCaret (Caret caret) {
+	synchronized (blinkingCarets) {
+		if (!blinkingCarets.contains (caret)) blinkingCarets.add (caret);
+		if (caretTimer == null) {
+			caretTimer = new javax.swing.Timer (LookAndFeelUtils.getCaretBlinkRate (), new ActionListener () {
+				public void actionPerformed (ActionEvent e) {
+					Caret [] carets;
+					synchronized (blinkingCarets) {
+						carets = blinkingCarets.toArray (new Caret [blinkingCarets.size ()]);
+					}
+					for (int i=0; i<carets.length; i++) {
+						carets [i].blink ();
+					}
+				}
+			});
+		}
+		if (!caretTimer.isRunning ()) caretTimer.start ();
+	}
+}
+
 void addControl (Component handle, Control control) {
 	if (handle == null) return;
-	componentToControlMap.put(handle, control);
+	Control oldControl;
+	if (handle instanceof JComponent) {
+		JComponent component = (JComponent) handle;
+		oldControl = (Control) component.getClientProperty (CONTROL_KEY);
+		component.putClientProperty (CONTROL_KEY, control);
+	} else {
+		oldControl = componentToControlMap.put (handle, control);
+	}
+	if (oldControl instanceof Shell) shellList.remove (oldControl);
+	if (control instanceof Shell) shellList.add ((Shell) control);
 }
 
 /**
@@ -531,7 +639,9 @@ public void addListener (int eventType, Listener listener) {
 }
 
 void addMenuItem (MenuItem item) {
-	menuItemsList.add(item);
+	if (item.handle != null) {
+		item.handle.putClientProperty (MENU_ITEM_KEY, item);
+	}
 }
 
 void addPopup (Menu menu) {
@@ -553,6 +663,20 @@ void addPopup (Menu menu) {
 	popups [index] = menu;
 }
 
+void armMouseHover (Control control, java.awt.event.MouseEvent me) {
+	if (!control.hooks (SWT.MouseHover) && !filters (SWT.MouseHover)) {
+		cancelMouseHover (null);
+		return;
+	}
+	mouseHoverControl = control;
+	mouseHoverEvent = me;
+	mouseHoverDeadline = System.currentTimeMillis () + MOUSE_HOVER_DELAY;
+	if (!isMouseHoverArmed) {
+		isMouseHoverArmed = true;
+		timerWheel.schedule (MOUSE_HOVER_DELAY, mouseHoverRunnable);
+	}
+}
+
 /**
  * Causes the <code>run()</code> method of the runnable to
  * be invoked by the user-interface thread at the next 
@@ -625,6 +749,16 @@ static synchronized void checkDisplay (Thread thread, boolean multiple) {
 	}
 }
 
+void cancelMouseHover (Control control) {
+	if (control != null && control != mouseHoverControl) return;
+	mouseHoverControl = null;
+	mouseHoverEvent = null;
+	if (isMouseHoverArmed) {
+		isMouseHoverArmed = false;
+		timerWheel.schedule (-1, mouseHoverRunnable);
+	}
+}
+
 /**
  * Requests that the connection between SWT and the underlying
  * operating system be closed.
@@ -754,7 +888,16 @@ boolean filters (int eventType) {
 	return filterTable.hooks (eventType);
 }
 
-HashMap<Component, Control> componentToControlMap = new HashMap<>();
+/*
+* The control of a Swing component is stored as a client property of
+* the component. Components that are not Swing components, like
+* windows, are registered in an identity map. The shells are also
+* kept in a list so that they can be returned without looking at
+* every registered component.
+*/
+static final Object CONTROL_KEY = new Object ();
+IdentityHashMap<Component, Control> componentToControlMap = new IdentityHashMap<>();
+ArrayList<Shell> shellList = new ArrayList<>();
 
 Control findControl (Component handle) {
 	if (handle == null) return null;
@@ -860,6 +1003,9 @@ public Rectangle getClientArea () {
 }
 
 Control getControl (Component handle) {
+	if (handle instanceof JComponent) {
+		return (Control) ((JComponent) handle).getClientProperty (CONTROL_KEY);
+	}
 	return componentToControlMap.get(handle);
 }
 
@@ -987,6 +1133,15 @@ public Object getData (String key) {
 //	if (key.equals (RUN_MESSAGES_IN_IDLE_KEY)) {
 //		return new Boolean (runMessagesInIdle);
 //	}
+	if (key.equals (COALESCE_MOUSE_MOTION_KEY)) {
+		return Boolean.valueOf (coalesceMouseMotion);
+	}
+	if (key.equals (VIRTUAL_ITEM_LIMIT_KEY)) {
+		return Integer.valueOf (virtualItemLimit);
+	}
+	if (key.equals (VIRTUAL_PREFETCH_COUNT_KEY)) {
+		return Integer.valueOf (virtualPrefetchCount);
+	}
 	if (keys == null) return null;
 	for (int i=0; i<keys.length; i++) {
 		if (keys [i].equals (key)) return values [i];
@@ -1173,13 +1328,8 @@ public static boolean isSystemDarkTheme () {
 }
 
 MenuItem getMenuItem (JComponent component) {
-	for(int i=0; i<menuItemsList.size(); i++) {
-		MenuItem menuItem = menuItemsList.get(i);
-		if(menuItem.handle == component) {
-			return menuItem;
-		}
-	}
-	return null;
+	if (component == null) return null;
+	return (MenuItem) component.getClientProperty (MENU_ITEM_KEY);
 }
 
 /*int getMessageCount () {
@@ -1262,14 +1412,12 @@ public Monitor getPrimaryMonitor () {
  */
 public Shell [] getShells () {
 	checkDevice ();
-	ArrayList<Shell> controlList = new ArrayList<>();
-	for(Component component: componentToControlMap.keySet()) {
+	ArrayList<Shell> controlList = new ArrayList<>(shellList.size());
+	for(int i=0; i<shellList.size(); i++) {
 		// TODO: what about file dialogs and such?
-		if(component instanceof Window) {
-			Control control = findControl(component);
-			if(control instanceof Shell) {
-				controlList.add((Shell)control);
-			}
+		Shell shell = shellList.get(i);
+		if(shell.handle instanceof Window) {
+			controlList.add(shell);
 		}
 	}
 	return controlList.toArray(new Shell[0]);
@@ -1979,19 +2127,21 @@ void postEvent (final Event event) {
 	* thread so it must be re-enterant but does not
 	* need to be synchronized.
 	*/
-	if (eventQueue == null) eventQueue = new Event [4];
-	int index = 0;
+	if (eventQueue == null) eventQueue = new Event [EVENT_QUEUE_INITIAL_LENGTH];
 	int length = eventQueue.length;
-	while (index < length) {
-		if (eventQueue [index] == null) break;
-		index++;
-	}
-	if (index == length) {
-		Event [] newQueue = new Event [length + 4];
-		System.arraycopy (eventQueue, 0, newQueue, 0, length);
+	if (eventQueueSize == length) {
+		/* Double the queue, moving the head to the start of the new array */
+		Event [] newQueue = new Event [length * 2];
+		int headLength = length - eventQueueHead;
+		System.arraycopy (eventQueue, eventQueueHead, newQueue, 0, headLength);
+		System.arraycopy (eventQueue, 0, newQueue, headLength, eventQueueHead);
 		eventQueue = newQueue;
+		eventQueueHead = 0;
+		length *= 2;
 	}
-	eventQueue [index] = event;
+	eventQueue [(eventQueueHead + eventQueueSize) & (length - 1)] = event;
+	eventQueueSize++;
+	if (eventQueueSize > eventQueueHighWaterMark) eventQueueHighWaterMark = eventQueueSize;
 }
 
 AWTEvent event;
@@ -2049,17 +2199,10 @@ public boolean readAndDispatch () {
 	if(SwingUtilities.isEventDispatchThread()) {
 		return isDisposed();
 	}
-	synchronized(UIThreadUtils.UI_LOCK) {
-		if(UIThreadUtils.exclusiveSectionCount == 0) {
-			return isDisposed();
-		}
-		try {
-			UIThreadUtils.UI_LOCK.notify();
-			UIThreadUtils.UI_LOCK.wait();
-		} catch(Exception e) {
-		}
-		UIThreadUtils.throwStoredException();
+	if(!UIThreadUtils.runExclusiveSection()) {
+		return isDisposed();
 	}
+	UIThreadUtils.throwStoredException();
 	runDeferredEvents ();
 //		return true;
 //	}
@@ -2131,6 +2274,11 @@ protected void release () {
 	disposeList = null;
 	synchronizer.releaseSynchronizer ();
 	synchronizer = null;
+	timerWheel.dispose ();
+	synchronized (blinkingCarets) {
+		blinkingCarets.clear ();
+		if (caretTimer != null) caretTimer.stop ();
+	}
 	releaseDisplay ();
 	super.release ();
 }
@@ -2210,13 +2358,31 @@ void removeBar (Menu menu) {
 	}
 }
 
+void removeBlinkingCaret (Caret caret) {
+	synchronized (blinkingCarets) {
+		blinkingCarets.remove (caret);
+		if (blinkingCarets.isEmpty () && caretTimer != null) caretTimer.stop ();
+	}
+}
+
 Control removeControl (Component handle) {
 	if (handle == null) return null;
-	return componentToControlMap.remove(handle);
+	Control control;
+	if (handle instanceof JComponent) {
+		JComponent component = (JComponent) handle;
+		control = (Control) component.getClientProperty (CONTROL_KEY);
+		component.putClientProperty (CONTROL_KEY, null);
+	} else {
+		control = componentToControlMap.remove(handle);
+	}
+	if (control instanceof Shell) shellList.remove (control);
+	return control;
 }
 
 void removeMenuItem (MenuItem item) {
-	menuItemsList.remove(item);
+	if (item.handle != null && item.handle.getClientProperty (MENU_ITEM_KEY) == item) {
+		item.handle.putClientProperty (MENU_ITEM_KEY, null);
+	}
 }
 
 void removePopup (Menu menu) {
@@ -2236,20 +2402,38 @@ boolean runAsyncMessages (boolean all) {
 	return synchronizer.runAsyncMessages (all);
 }
 
+void runMouseHover () {
+	if (!isMouseHoverArmed) return;
+	/*
+	* The deadline is pushed back on every mouse move without
+	* rescheduling the timer, so wait for the remaining delay.
+	*/
+	long remaining = mouseHoverDeadline - System.currentTimeMillis ();
+	if (remaining > 0) {
+		timerWheel.schedule ((int) remaining, mouseHoverRunnable);
+		return;
+	}
+	isMouseHoverArmed = false;
+	Control control = mouseHoverControl;
+	java.awt.event.MouseEvent me = mouseHoverEvent;
+	mouseHoverControl = null;
+	mouseHoverEvent = null;
+	if (control != null) control.sendMouseHover (me);
+}
+
 boolean runDeferredEvents () {
 	/*
 	* Run deferred events.  This code is always
 	* called in the Display's thread so it must
 	* be re-enterant but need not be synchronized.
 	*/
-	while (eventQueue != null) {
+	while (eventQueueSize > 0) {
 		
 		/* Take an event off the queue */
-		Event event = eventQueue [0];
-		if (event == null) break;
-		int length = eventQueue.length;
-		System.arraycopy (eventQueue, 1, eventQueue, 0, --length);
-		eventQueue [length] = null;
+		Event event = eventQueue [eventQueueHead];
+		eventQueue [eventQueueHead] = null;
+		eventQueueHead = (eventQueueHead + 1) & (eventQueue.length - 1);
+		eventQueueSize--;
 
 		/* Run the event */
 		Widget widget = event.widget;
@@ -2262,16 +2446,106 @@ boolean runDeferredEvents () {
 
 		/*
 		* At this point, the event queue could
-		* be null due to a recursive invokation
+		* be empty due to a recursive invokation
 		* when running the event.
 		*/
 	}
 
-	/* Clear the queue */
-	eventQueue = null;
+	/* Clear the queue, releasing it if a burst of events made it grow */
+	eventQueueHead = 0;
+	if (eventQueue != null && eventQueue.length > EVENT_QUEUE_RETAINED_LENGTH) eventQueue = null;
 	return true;
 }
 
+/**
+ * Returns the number of deferred events waiting to be sent.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public int getDeferredEventCount () {
+	return eventQueueSize;
+}
+
+/**
+ * Returns the largest number of deferred events that have been
+ * waiting to be sent at the same time.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public int getDeferredEventHighWaterMark () {
+	return eventQueueHighWaterMark;
+}
+
+/**
+ * Returns the number of passes that laid out the composites
+ * resized since the previous pass.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long getLayoutPassCount () {
+	return layoutPassCount;
+}
+
+/**
+ * Returns the number of times a composite was laid out because
+ * it was resized.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long getResizeLayoutCount () {
+	return resizeLayoutCount;
+}
+
+/**
+ * Returns the number of control sizes that were found in the
+ * cache of the layout passes.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long getSizeCacheHitCount () {
+	return sizeCacheHitCount;
+}
+
+/**
+ * Returns the number of control sizes that were computed during
+ * layout passes because they were not in the cache.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long getSizeCacheMissCount () {
+	return sizeCacheMissCount;
+}
+
+/**
+ * Returns the number of mouse motion events that were not sent
+ * because a more recent one was pending for the same control.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long getCoalescedMouseMotionCount () {
+	return coalescedMouseMotionCount;
+}
+
+/**
+ * Returns the number of virtual table items whose data was
+ * requested with a <code>SWT.SetData</code> event.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long getVirtualItemMaterializationCount () {
+	return virtualItemMaterializationCount;
+}
+
+/**
+ * Returns the number of virtual table items that were cleared
+ * because there were more items with data than the limit.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long getVirtualItemEvictionCount () {
+	return virtualItemEvictionCount;
+}
+
 void sendEvent (int eventType, Event event) {
 	if (eventTable == null && filterTable == null) {
 		return;
@@ -2394,6 +2668,30 @@ public void setCursorLocation (Point point) {
  * of, it is the application's responsibility provide a
  * <code>disposeExec()</code> handler which does so.
  * </p>
+ * <p>
+ * Setting <code>"org.eclipse.swt.swing.coalesceMouseMotion"</code> to
+ * <code>Boolean.TRUE</code> collapses the mouse motion events that are
+ * pending for the same control into the most recent one. The locations
+ * of the collapsed events are then available, oldest first, as a
+ * <code>Point []</code> in the <code>data</code> field of the
+ * <code>SWT.MouseMove</code> event.
+ * </p>
+ * <p>
+ * Setting <code>"org.eclipse.swt.swing.virtualItemLimit"</code> to a
+ * positive <code>Integer</code> bounds the number of items of the
+ * <code>SWT.VIRTUAL</code> tables that keep the data they received in
+ * <code>SWT.SetData</code>. The least recently used items beyond that
+ * limit are cleared, and their data is requested again when they are
+ * shown. Items that are visible, selected, checked, or that were
+ * changed outside of their <code>SWT.SetData</code> event are kept.
+ * </p>
+ * <p>
+ * The <code>SWT.VIRTUAL</code> tables and trees request the data of all
+ * their visible items before they paint. Setting
+ * <code>"org.eclipse.swt.swing.virtualPrefetchCount"</code> to a positive
+ * <code>Integer</code> also requests the data of that many items beyond
+ * the visible ones, in the direction of the last scroll.
+ * </p>
  *
  * @param key the name of the property
  * @param value the new value for the property
@@ -2417,6 +2715,18 @@ public void setData (String key, Object value) {
 //		runMessagesInIdle = data != null && data.booleanValue ();
 //		return;
 //	}
+	if (key.equals (COALESCE_MOUSE_MOTION_KEY)) {
+		coalesceMouseMotion = Boolean.TRUE.equals (value);
+		return;
+	}
+	if (key.equals (VIRTUAL_ITEM_LIMIT_KEY)) {
+		virtualItemLimit = value instanceof Integer ? Math.max (0, ((Integer) value).intValue ()) : 0;
+		return;
+	}
+	if (key.equals (VIRTUAL_PREFETCH_COUNT_KEY)) {
+		virtualPrefetchCount = value instanceof Integer ? Math.max (0, ((Integer) value).intValue ()) : 0;
+		return;
+	}
 	
 	/* Remove the key/value pair */
 	if (value == null) {
@@ -2614,15 +2924,7 @@ public boolean sleep () {
 		UIThreadUtils.fakeDispatchingEDT = null;
 		return result;
 	}
-	synchronized(UIThreadUtils.UI_LOCK) {
-		if(UIThreadUtils.exclusiveSectionCount == 0) {
-			try {
-				UIThreadUtils.UI_LOCK.wait();
-			} catch(Exception e) {
-			}
-		}
-		return UIThreadUtils.exclusiveSectionCount > 0;
-	}
+	return UIThreadUtils.sleepUIThread();
 }
 
 /**
@@ -2680,36 +2982,49 @@ public void syncExec (Runnable runnable) {
 public void timerExec (final int milliseconds, final Runnable runnable) {
 	checkDevice ();
 	if (runnable == null) error (SWT.ERROR_NULL_ARGUMENT);
-	if (milliseconds < 0) {
-		timerList.remove(runnable);
-		return;
-	}
-	timerList.add(runnable);
-	new Thread("Display.timerExecThread") {
-		public void run() {
-			try {
-				sleep(milliseconds);
-				boolean isRemoved = timerList.remove(runnable);
-				if(isRemoved) {
-					SwingUtilities.invokeLater(runnable);
-				}
-			} catch(Exception e) {}
-		}
-	}.start();
+	timerWheel.schedule (milliseconds, runnable);
+}
+
+/**
+ * Returns the number of runnables scheduled with <code>timerExec</code>
+ * that have not run yet.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public int getPendingTimerCount () {
+	return timerWheel.getPendingCount ();
+}
+
+/**
+ * Returns the number of runnables scheduled with <code>timerExec</code>
+ * that have been dispatched to the user-interface thread.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long getFiredTimerCount () {
+	return timerWheel.getFiredCount ();
+}
+
+/**
+ * Returns the number of runnables scheduled with <code>timerExec</code>
+ * that were cancelled before they could run.
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long getCancelledTimerCount () {
+	return timerWheel.getCancelledCount ();
 }
 
 static int translateKey (int key) {
-	for (int i=0; i<KeyTable.length; i++) {
-		if (KeyTable [i] [0] == key) return KeyTable [i] [1];
-	}
+	int index = Arrays.binarySearch (SortedAWTKeys, key);
+	if (index >= 0) return SortedAWTToSWTKeys [index];
 	// TODO: return translateChar or something
 	return 0;
 }
 
 static int untranslateKey (int key) {
-	for (int i=0; i<KeyTable.length; i++) {
-		if (KeyTable [i] [1] == key) return KeyTable [i] [0];
-	}
+	int index = Arrays.binarySearch (SortedSWTKeys, key);
+	if (index >= 0) return SortedSWTToAWTKeys [index];
 	return untranslateChar((char)key);
 }
 
@@ -2797,6 +3112,74 @@ public void wake () {
 	UIThreadUtils.wakeUIThread();
 }
 
+/*
+* Resize events come in bursts while a window is dragged, and the
+* layout of a composite resizes its children, which then get their own
+* resize events. The resized composites are thus queued, and laid out
+* once the pending events are processed, parents first.
+*/
+void scheduleLayout (Composite composite) {
+	if ((composite.state & Widget.LAYOUT_SCHEDULED) != 0) return;
+	composite.state |= Widget.LAYOUT_SCHEDULED;
+	layoutQueue.add (composite);
+	if (isLayoutQueueScheduled) return;
+	isLayoutQueueScheduled = true;
+	SwingUtilities.invokeLater(new Runnable() {
+		public void run() {
+			UIThreadUtils.startExclusiveSection(Display.this);
+			try {
+				runLayouts ();
+			} catch(Throwable t) {
+				UIThreadUtils.storeException(t);
+			} finally {
+				UIThreadUtils.stopExclusiveSection();
+			}
+		}
+	});
+}
+
+void runLayouts () {
+	isLayoutQueueScheduled = false;
+	if (layoutQueue.isEmpty ()) return;
+	Composite [] composites = layoutQueue.toArray (new Composite [layoutQueue.size ()]);
+	layoutQueue.clear ();
+	layoutPassCount++;
+	final int [] depths = new int [composites.length];
+	Integer [] indices = new Integer [composites.length];
+	for (int i=0; i<composites.length; i++) {
+		indices [i] = i;
+		for (Composite parent = composites [i].parent; parent != null; parent = parent.parent) {
+			depths [i]++;
+		}
+	}
+	Arrays.sort (indices, (index1, index2) -> depths [index1] - depths [index2]);
+	for (int i=0; i<indices.length; i++) {
+		Composite composite = composites [indices [i]];
+		composite.state &= ~Widget.LAYOUT_SCHEDULED;
+		if (composite.isDisposed ()) continue;
+		/* A layout that fails must not leave the other composites scheduled forever */
+		try {
+			composite.updateResizeLayout ();
+		} catch(Throwable t) {
+			UIThreadUtils.storeException(t);
+		}
+	}
+}
+
+/*
+* The controls only reuse the sizes they computed while a layout pass
+* is running. Passes can nest, and each outermost pass starts a new
+* generation, so that a size computed before it is never reused.
+*/
+void startSizeCachePass () {
+	/* A new pass does not trust the sizes computed during the previous ones */
+	if (sizeCachePassDepth++ == 0) sizeCacheGeneration++;
+}
+
+void stopSizeCachePass () {
+	sizeCachePassDepth--;
+}
+
 void wakeThread () {
 	SwingUtilities.invokeLater(new Runnable() {
 		public void run() {
@@ -295,6 +295,7 @@ public void setText (String string) {
 		string = string.replaceAll("&&", "&");
 	}
 	((CGroup)handle).setText(string);
+	flushSizeCache ();
 }
 
 //int widgetStyle () {
@@ -362,6 +362,7 @@ public void setImage (Image image) {
 		icon = new ImageIcon (image.handle);
 	}
 	((CLabel) handle).setIcon (icon);
+	flushSizeCache ();
 }
 
 /**
@@ -406,6 +407,7 @@ public void setText (String string) {
 		string = string.replaceAll("&&", "&");
 	}
 	((CLabel)handle).setText(string, mnemonicIndex);
+	flushSizeCache ();
 }
 
 //int widgetExtStyle () {
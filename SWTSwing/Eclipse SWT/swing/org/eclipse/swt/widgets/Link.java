@@ -294,6 +294,7 @@ public void setText (String string) {
 		string = string.replaceAll("&&", "&");
 	}
 	((CLink)handle).setLinkText(string);
+	flushSizeCache ();
 }
 
 public void processEvent(EventObject e) {
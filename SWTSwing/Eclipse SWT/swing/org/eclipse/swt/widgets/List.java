@@ -190,10 +190,7 @@ public void deselect (int [] indices) {
 	if (indices == null) error (SWT.ERROR_NULL_ARGUMENT);
 	int length = indices.length;
 	if (length == 0 || ((style & SWT.SINGLE) != 0 && length > 1)) return;
-	for(int i=0; i<indices.length; i++) {
-		int index = indices[i];
-		((CList)handle).removeSelectionInterval(index, index);
-	}
+	((CList)handle).removeSelectionIndices(indices);
 }
 
 Container createHandle () {
@@ -356,7 +353,7 @@ public String [] getItems () {
 	checkWidget ();
 	int count = getItemCount ();
 	String [] result = new String [count];
-	for (int i=0; i<count; i++) result [i] = getItem (i);
+	((CList)handle).copyInto(result);
 	return result;
 }
 
@@ -693,10 +690,7 @@ public void select (int [] indices) {
 	int length = indices.length;
 	if (length == 0 || ((style & SWT.SINGLE) != 0 && length > 1)) return;
 	isAdjustingSelection = true;
-	for(int i=0; i<indices.length; i++) {
-		int index = indices[i];
-		((CList)handle).addSelectionInterval(index, index);
-	}
+	((CList)handle).addSelectionIndices(indices);
 	isAdjustingSelection = false;
 }
 
@@ -848,10 +842,7 @@ public void setSelection(int [] indices) {
 	int length = indices.length;
 	if (length == 0 || ((style & SWT.SINGLE) != 0 && length > 1)) return;
 	isAdjustingSelection = true;
-	for(int i=0; i<indices.length; i++) {
-		int index = indices[i];
-		((CList)handle).addSelectionInterval(index, index);
-	}
+	((CList)handle).addSelectionIndices(indices);
 	isAdjustingSelection = false;
 }
 
@@ -889,6 +880,14 @@ public void setSelection (String [] items) {
 	isAdjustingSelection = false;
 }
 
+void resumeRedraw () {
+	((CList)handle).endBulkChange();
+}
+
+void suspendRedraw () {
+	((CList)handle).beginBulkChange();
+}
+
 /**
  * Selects the item at the given zero-relative index in the receiver. 
  * If the item at the index was already selected, it remains selected.
@@ -812,7 +812,9 @@ public void setMenu (Menu menu) {
 		popup.setEnabled(menuItem.isEnabled());
 		popup.setSelected(menuItem.isSelected());
 		popup.setIcon(menuItem.getIcon());
+		display.removeMenuItem(this);
 		handle = popup;
+		display.addMenuItem(this);
 	}
 	JMenu menuHandle = (JMenu)handle;
 	JPopupMenu popupMenu = menuHandle.getPopupMenu();
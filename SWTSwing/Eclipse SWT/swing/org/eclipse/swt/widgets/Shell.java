@@ -1337,7 +1337,7 @@ public void setRegion (Region region) {
 	checkWidget ();
 	if ((style & SWT.NO_TRIM) == 0) return;
 	if (region != null && region.isDisposed()) error (SWT.ERROR_INVALID_ARGUMENT);
-	((CShell)handle).setShape(region == null? null: region.handle);
+	((CShell)handle).setShape(region == null? null: region.getShape());
 	this.region = region;
 }
 
@@ -21,8 +21,12 @@ import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.EventObject;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.swing.DefaultListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableColumnModel;
@@ -39,6 +43,7 @@ import org.eclipse.swt.internal.swing.CTable;
 import org.eclipse.swt.internal.swing.CTableItem;
 import org.eclipse.swt.internal.swing.UIThreadUtils;
 import org.eclipse.swt.internal.swing.CTable.CellPaintEvent;
+import org.eclipse.swt.internal.swing.CTable.PrefetchEvent;
 
 /** 
  * Instances of this class implement a selectable user interface
@@ -91,6 +96,11 @@ public class Table extends Composite {
 //	ImageList imageList;
 	TableItem currentItem;
 	int lastIndexOf;
+	LinkedHashMap<TableItem, Integer> virtualItemMap;
+	boolean isVirtualItemEvictionScheduled;
+	int prefetchTopIndex;
+	boolean isPrefetchingUp;
+	boolean isColumnWidthAdjustmentPending;
 //	int lastWidth;
 //	boolean customDraw, dragStarted, fixScrollWidth, mouseDown, tipRequested;
 //	boolean ignoreActivate, ignoreSelect, ignoreShrink, ignoreResize;
@@ -139,6 +149,11 @@ public Table (Composite parent, int style) {
 void adjustColumnWidth() {
 	// Could be more efficient. Should post, with coalescing?
 	if(getColumnCount() == 0) {
+		if(drawCount > 0) {
+			/* Measuring renders every row, so it is done once when redraw is turned back on */
+			isColumnWidthAdjustmentPending = true;
+			return;
+		}
 		CTable cTable = (CTable)handle;
 		cTable.getColumnModel().getColumn(0).setPreferredWidth(cTable.getPreferredColumnWidth(0));
 	}
@@ -179,6 +194,69 @@ public void addSelectionListener (SelectionListener listener) {
 	addListener (SWT.DefaultSelection,typedListener);
 }
 
+void addVirtualItem (TableItem item, int index) {
+	if (virtualItemMap == null) virtualItemMap = new LinkedHashMap<> (16, 0.75f, true);
+	virtualItemMap.put (item, index);
+	if (virtualItemMap.size () <= display.virtualItemLimit || isVirtualItemEvictionScheduled) return;
+	/*
+	* Items are requested while the table paints, so evict
+	* the least recently used ones once the painting is done.
+	*/
+	isVirtualItemEvictionScheduled = true;
+	SwingUtilities.invokeLater(new Runnable() {
+		public void run() {
+			UIThreadUtils.startExclusiveSection(display);
+			try {
+				evictVirtualItems ();
+			} catch(Throwable t) {
+				UIThreadUtils.storeException(t);
+			} finally {
+				UIThreadUtils.stopExclusiveSection();
+			}
+		}
+	});
+}
+
+void evictVirtualItems () {
+	isVirtualItemEvictionScheduled = false;
+	if (isDisposed () || virtualItemMap == null) return;
+	int limit = display.virtualItemLimit;
+	if (limit <= 0) {
+		virtualItemMap = null;
+		return;
+	}
+	int itemCount = itemList.size ();
+	int topIndex = getTopIndex ();
+	int itemHeight = Math.max (1, getItemHeight ());
+	int bottomIndex = topIndex + getClientArea ().height / itemHeight + 1;
+	int prefetchCount = display.virtualPrefetchCount;
+	DefaultListSelectionModel selectionModel = ((CTable)handle).getSelectionModel();
+	Iterator<Map.Entry<TableItem, Integer>> iterator = virtualItemMap.entrySet ().iterator ();
+	while (virtualItemMap.size () > limit && iterator.hasNext ()) {
+		Map.Entry<TableItem, Integer> entry = iterator.next ();
+		TableItem item = entry.getKey ();
+		if (item.isDisposed () || !item.cached || item.modified) {
+			iterator.remove ();
+			continue;
+		}
+		int index = entry.getValue ();
+		if (index >= itemCount || itemList.get (index) != item) {
+			index = indexOf (item);
+			if (index == -1) {
+				iterator.remove ();
+				continue;
+			}
+			entry.setValue (index);
+		}
+		/* Keep the items that are shown, prefetched, selected or in a state that the user changed */
+		if (topIndex - prefetchCount <= index && index <= bottomIndex + prefetchCount) continue;
+		if (selectionModel.isSelectedIndex (index) || item.handle.isChecked () || item.handle.isGrayed ()) continue;
+		iterator.remove ();
+		item.clear (index);
+		display.virtualItemEvictionCount++;
+	}
+}
+
 boolean checkData (TableItem item, boolean redraw) {
 	if ((style & SWT.VIRTUAL) == 0) return true;
 	return checkData (item, indexOf (item), redraw);
@@ -196,6 +274,8 @@ boolean checkData (TableItem item, int index, boolean redraw) {
 		//widget could be disposed at this point
 		currentItem = null;
 		if (isDisposed () || item.isDisposed ()) return false;
+		display.virtualItemMaterializationCount++;
+		if (display.virtualItemLimit > 0) addVirtualItem (item, index);
 //		if (redraw) {
 //			if (!setScrollWidth (item, false)) {
 //				item.redraw ();
@@ -708,8 +788,10 @@ void destroyItem (TableColumn column) {
 }
 
 void destroyItem (TableItem item) {
+	if (virtualItemMap != null) virtualItemMap.remove (item);
 	int index = indexOf(item);
-	itemList.remove(item);
+	if (index == -1) return;
+	itemList.remove(index);
 	((CTable)handle).removeItem(index);
 }
 
@@ -986,7 +1068,11 @@ public TableItem getItem (Point point) {
 TableItem _getItem (int index) {
 	TableItem tableItem = itemList.get(index);
 	if ((style & SWT.VIRTUAL) == 0) return tableItem;
-	if (tableItem != null) return tableItem;
+	if (tableItem != null) {
+		/* Mark the item as the most recently used one */
+		if (virtualItemMap != null) virtualItemMap.get (tableItem);
+		return tableItem;
+	}
 	tableItem = new TableItem (this, SWT.NONE, -1, false);
 	itemList.set(index, tableItem);
 	return tableItem;
@@ -1373,6 +1459,7 @@ void releaseChildren (boolean destroy) {
 		}
 		itemList = null;
 	}
+	virtualItemMap = null;
 	if(columnList != null) {
 		for(int i=0; i<columnList.size(); i++) {
 			TableColumn column = columnList.get(i);
@@ -1463,15 +1550,21 @@ public void remove (int [] indices) {
 	if (!(0 <= start && start <= end && end < count)) {
 		error (SWT.ERROR_INVALID_RANGE);
 	}
-	for(int i=0; i<newIndices.length; i++) {
-		int index = newIndices[i];
-		TableItem tableItem = itemList.get(index);
-		if(tableItem != null) {
-			tableItem.dispose();
-		} else {
-			itemList.remove(index);
-			((CTable)handle).removeItem(index);
+	CTable cTable = (CTable)handle;
+	cTable.beginBulkChange();
+	try {
+		for(int i=0; i<newIndices.length; i++) {
+			int index = newIndices[i];
+			TableItem tableItem = itemList.get(index);
+			if(tableItem != null) {
+				tableItem.dispose();
+			} else {
+				itemList.remove(index);
+				cTable.removeItem(index);
+			}
 		}
+	} finally {
+		cTable.endBulkChange();
 	}
 }
 
@@ -1525,14 +1618,20 @@ public void remove (int start, int end) {
 	if (!(0 <= start && start <= end && end < count)) {
 		error (SWT.ERROR_INVALID_RANGE);
 	}
-	for(int i=end; i>=start; i--) {
-		TableItem tableItem = itemList.get(i);
-		if(tableItem != null) {
-			tableItem.dispose();
-		} else {
-			itemList.remove(i);
-			((CTable)handle).removeItem(i);
+	CTable cTable = (CTable)handle;
+	cTable.beginBulkChange();
+	try {
+		for(int i=end; i>=start; i--) {
+			TableItem tableItem = itemList.get(i);
+			if(tableItem != null) {
+				tableItem.dispose();
+			} else {
+				itemList.remove(i);
+				cTable.removeItem(i);
+			}
 		}
+	} finally {
+		cTable.endBulkChange();
 	}
 }
 
@@ -1546,14 +1645,20 @@ public void remove (int start, int end) {
  */
 public void removeAll () {
 	checkWidget ();
-	for(int i=itemList.size()-1; i>=0; i--) {
-		TableItem tableItem = itemList.get(i);
-		if(tableItem != null) {
-			tableItem.dispose();
-		} else {
-			itemList.remove(i);
-			((CTable)handle).removeItem(i);
+	CTable cTable = (CTable)handle;
+	cTable.beginBulkChange();
+	try {
+		for(int i=itemList.size()-1; i>=0; i--) {
+			TableItem tableItem = itemList.get(i);
+			if(tableItem != null) {
+				tableItem.dispose();
+			} else {
+				itemList.remove(i);
+				cTable.removeItem(i);
+			}
 		}
+	} finally {
+		cTable.endBulkChange();
 	}
 }
 
@@ -2022,39 +2127,45 @@ public void setItemCount (int count) {
 	if (count == itemCount) return;
 	boolean isVirtual = (style & SWT.VIRTUAL) != 0;
 //	if (!isVirtual) setRedraw (false);
-	int index = count;
-	int tmpItemCount = itemCount;
-	while (index < tmpItemCount) {
-		TableItem item = itemList.get(tmpItemCount - 1);
-//		if (!isVirtual) {
-//			((CTable)handle).removeItem(index);
-//		}
-		if (item != null && !item.isDisposed ()) {
-		  item.release (true);
-		} else {
-		  itemList.remove(index);
-		  ((CTable)handle).removeItem(index);
+	CTable cTable = (CTable)handle;
+	cTable.beginBulkChange();
+	try {
+		int index = count;
+		int tmpItemCount = itemCount;
+		while (index < tmpItemCount) {
+			TableItem item = itemList.get(tmpItemCount - 1);
+//			if (!isVirtual) {
+//				cTable.removeItem(index);
+//			}
+			if (item != null && !item.isDisposed ()) {
+			  item.release (true);
+			} else {
+			  itemList.remove(index);
+			  cTable.removeItem(index);
+			}
+			tmpItemCount--;
 		}
-		tmpItemCount--;
-	}
-//	if (index < itemCount) error (SWT.ERROR_ITEM_NOT_REMOVED);
-	itemList.ensureCapacity(count);
-	for(int i=itemCount; i<count; i++) {
-		if (isVirtual) {
-			itemList.add(null);
-			((CTable)handle).addItem(i);
-		} else {
-			new TableItem (this, SWT.NONE, i, true);
+//		if (index < itemCount) error (SWT.ERROR_ITEM_NOT_REMOVED);
+		itemList.ensureCapacity(count);
+		for(int i=itemCount; i<count; i++) {
+			if (isVirtual) {
+				itemList.add(null);
+				cTable.addItem(i);
+			} else {
+				new TableItem (this, SWT.NONE, i, true);
+			}
 		}
-	}
-//	if (isVirtual) {
-////  TODO: notify item deleted?
-//	} else {
-//		for (int i=itemCount; i<count; i++) {
-//			itemList.set(i, new TableItem (this, SWT.NONE, i, false));
+//		if (isVirtual) {
+////		TODO: notify item deleted?
+//		} else {
+//			for (int i=itemCount; i<count; i++) {
+//				itemList.set(i, new TableItem (this, SWT.NONE, i, false));
+//			}
 //		}
-//	}
-	((CTable)handle).getModel().fireTableDataChanged();
+	} finally {
+		/* All the rows added or removed are notified with a single event */
+		cTable.endBulkChange();
+	}
 //	if (!isVirtual) setRedraw (true);
 }
 
@@ -2098,6 +2209,18 @@ public void setLinesVisible (boolean show) {
 	((CTable)handle).setGridVisible(show);
 }
 
+void resumeRedraw () {
+	((CTable)handle).endBulkChange();
+	if (isColumnWidthAdjustmentPending) {
+		isColumnWidthAdjustmentPending = false;
+		adjustColumnWidth ();
+	}
+}
+
+void suspendRedraw () {
+	((CTable)handle).beginBulkChange();
+}
+
 //public void setRedraw (boolean redraw) {
 //	checkWidget ();
 //	/*
@@ -3399,6 +3522,36 @@ static int checkStyle (int style) {
 //	return super.wmNotifyChild (wParam, lParam);
 //}
 
+void prefetchItems (int firstIndex, int lastIndex) {
+	/*
+	* Scrolling usually goes on in the same direction, so the
+	* items beyond the visible ones are requested on the side
+	* the rows are coming from.
+	*/
+	if (firstIndex != prefetchTopIndex) {
+		isPrefetchingUp = firstIndex < prefetchTopIndex;
+		prefetchTopIndex = firstIndex;
+	}
+	lastIndex = Math.min (lastIndex, itemList.size () - 1);
+	if (!checkData (firstIndex, lastIndex)) return;
+	int count = display.virtualPrefetchCount;
+	if (count == 0) return;
+	if (isPrefetchingUp) {
+		checkData (Math.max (0, firstIndex - count), firstIndex - 1);
+	} else {
+		checkData (lastIndex + 1, lastIndex + count);
+	}
+}
+
+boolean checkData (int start, int end) {
+	for (int i=start; i<=end && i<itemList.size (); i++) {
+		TableItem item = itemList.get (i);
+		if (item != null && item.cached) continue;
+		if (!checkData (_getItem (i), i, false)) return false;
+	}
+	return true;
+}
+
 public void processEvent(EventObject e) {
 	if(e instanceof CellPaintEvent) {
 		switch(((CellPaintEvent)e).getType()) {
@@ -3409,6 +3562,8 @@ public void processEvent(EventObject e) {
 		}
 	} else if(e instanceof ListSelectionEvent) {
 		if(!hooks(SWT.Selection) || isAdjustingSelection) { super.processEvent(e); return; };
+	} else if(e instanceof PrefetchEvent) {
+		if((style & SWT.VIRTUAL) == 0) { super.processEvent(e); return; }
 	} else {
 		super.processEvent(e);
 		return;
@@ -3502,6 +3657,9 @@ public void processEvent(EventObject e) {
 				}
 				sendEvent(SWT.Selection, event);
 			}
+		} else if(e instanceof PrefetchEvent) {
+			PrefetchEvent prefetchEvent = (PrefetchEvent)e;
+			prefetchItems(prefetchEvent.firstRow, prefetchEvent.lastRow);
 		}
 		super.processEvent(e);
 	} catch(Throwable t) {
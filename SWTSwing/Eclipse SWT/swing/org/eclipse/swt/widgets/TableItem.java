@@ -26,7 +26,6 @@ import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.internal.swing.CTable;
 import org.eclipse.swt.internal.swing.CTableItem;
 import org.eclipse.swt.internal.swing.Utils;
-import org.eclipse.swt.internal.swing.CTableItem.TableItemObject;
 
 /**
  * Instances of this class represent a selectable user interface object
@@ -58,7 +57,7 @@ public class TableItem extends Item {
 //	String [] strings;
 	Image [] images;
 //	boolean checked, grayed
-	boolean cached;
+	boolean cached, modified;
 //	int imageIndent, background = -1, foreground = -1, font = -1;
 //	int [] cellBackground, cellForeground, cellFont;
 
@@ -153,6 +152,10 @@ CTableItem createHandle () {
 }
 
 void clear () {
+	clear (parent.indexOf (this));
+}
+
+void clear (int itemIndex) {
 	text = "";
 	image = null;
 	images = null;
@@ -161,16 +164,7 @@ void clear () {
 	handle.setFont(null);
 	handle.setChecked(false);
 	handle.setGrayed(false);
-	int count = parent.getColumnCount();
-	for(int i=0; i<count; i++) {
-	  TableItemObject tableItemObject = handle.getTableItemObject(count);
-	  tableItemObject.setText(null);
-	  tableItemObject.setBackground(null);
-	  tableItemObject.setForeground(null);
-	  tableItemObject.setFont(null);
-	  tableItemObject.setIcon(null);
-	}
-	int itemIndex = parent.indexOf (this);
+	handle.clearTableItemObjects();
 	((CTable)parent.handle).getModel().fireTableRowsUpdated(itemIndex, itemIndex);
 //	strings = null;
 //	images = null;
@@ -179,6 +173,18 @@ void clear () {
 //	background = foreground = font = -1;
 //	cellBackground = cellForeground = cellFont = null;
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = false;
+	modified = false;
+}
+
+/*
+* A change that is not made from the SetData event of the
+* receiver cannot be requested again, so the receiver is
+* then never evicted by a table with a virtual item limit.
+*/
+void setCached () {
+	if ((parent.style & SWT.VIRTUAL) == 0) return;
+	cached = true;
+	if (parent.currentItem != this) modified = true;
 }
 
 void destroyWidget () {
@@ -604,7 +610,7 @@ public void setBackground (Color color) {
 	}
 	handle.setBackground(color == null? null: color.handle);
 	int index = parent.indexOf(this);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	((CTable)parent.handle).getModel().fireTableRowsUpdated(index, index);
 }
 
@@ -635,7 +641,7 @@ public void setBackground (int index, Color color) {
 	int count = Math.max (1, parent.getColumnCount ());
 	if (0 > index || index > count - 1) return;
 	handle.getTableItemObject(index).setBackground(color == null? null: color.handle);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	((CTable)parent.handle).getModel().fireTableCellUpdated(parent.indexOf(this), index);
 }
 
@@ -654,7 +660,7 @@ public void setChecked (boolean checked) {
 	checkWidget();
 	if ((parent.style & SWT.CHECK) == 0) return;
 	handle.setChecked(checked);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	// TODO: is it always 0 if columns are reordered?
 	((CTable)parent.handle).getModel().fireTableCellUpdated(parent.indexOf(this), 0);
 }
@@ -694,7 +700,7 @@ public void setFont (Font font){
 	}
 	handle.setFont(font == null? null: font.handle);
 	int index = parent.indexOf(this);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	((CTable)parent.handle).getModel().fireTableRowsUpdated(index, index);
 }
 
@@ -726,7 +732,7 @@ public void setFont (int index, Font font) {
 	if (0 > index || index > count - 1) return;
 	handle.getTableItemObject(index).setFont(font == null? null: font.handle);
 	((CTable)parent.handle).getModel().fireTableCellUpdated(parent.indexOf(this), index);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	parent.adjustColumnWidth();
 }
 
@@ -754,7 +760,7 @@ public void setForeground (Color color){
 	}
 	handle.setForeground(color == null? null: color.handle);
 	int index = parent.indexOf(this);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	((CTable)parent.handle).getModel().fireTableRowsUpdated(index, index);
 }
 
@@ -784,7 +790,7 @@ public void setForeground (int index, Color color){
 	int count = Math.max (1, parent.getColumnCount ());
 	if (0 > index || index > count - 1) return;
 	handle.getTableItemObject(index).setForeground(color == null? null: color.handle);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	((CTable)parent.handle).getModel().fireTableCellUpdated(parent.indexOf(this), index);
 }
 
@@ -803,7 +809,7 @@ public void setGrayed (boolean grayed) {
 	checkWidget ();
 	if ((parent.style & SWT.CHECK) == 0) return;
 	handle.setGrayed(grayed);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	// TODO: is it always 0 if columns are reordered?
 	((CTable)parent.handle).getModel().fireTableCellUpdated(parent.indexOf(this), 0);
 }
@@ -868,7 +874,7 @@ public void setImage (int index, Image image) {
 		images [index] = image;
 	}
 	handle.getTableItemObject(index).setIcon(image != null? new ImageIcon(image.handle): null);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	((CTable)parent.handle).getModel().fireTableCellUpdated(index, index);
 	parent.adjustColumnWidth();
 //
@@ -974,7 +980,7 @@ public void setText (int index, String string) {
 		super.setText(string);
 	}
 	handle.getTableItemObject(index).setText(string);
-	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
+	setCached ();
 	((CTable)parent.handle).getModel().fireTableCellUpdated(parent.indexOf(this), index);
 	parent.adjustColumnWidth();
 }
@@ -271,13 +271,12 @@ public void append (String string) {
 	checkWidget ();
 	if (string == null) error (SWT.ERROR_NULL_ARGUMENT);
 	CText cText = (CText)handle;
-	String text = cText.getText();
 //	if (hooks (SWT.Verify) || filters (SWT.Verify)) {
 //		int length = text.length();
 //		string = verifyText (string, length, length, null);
 //		if (string == null) return;
 //	}
-	cText.setText(text + string);
+	cText.append(string);
 }
 
 void applySegments () {
@@ -496,7 +495,7 @@ public int getCaretPosition () {
  */
 public int getCharCount () {
 	checkWidget ();
-	return ((CText)handle).getText().length();
+	return ((CText)handle).getCharCount();
 }
 
 /**
@@ -603,6 +602,27 @@ public int getLineHeight () {
 	return ((CText)handle).getRowHeight();
 }
 
+/**
+ * Returns the maximum number of lines that the receiver keeps,
+ * or -1 if the number of lines is not limited.
+ * <p>
+ * This method is specific to the Swing implementation.
+ * </p>
+ *
+ * @return the maximum number of lines
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #setMaximumLineCount(int)
+ */
+public int getMaximumLineCount () {
+	checkWidget ();
+	return ((CText)handle).getMaximumLineCount();
+}
+
 /**
  * Returns the orientation of the receiver, which will be one of the
  * constants <code>SWT.LEFT_TO_RIGHT</code> or <code>SWT.RIGHT_TO_LEFT</code>.
@@ -764,7 +784,7 @@ public String getText (int start, int end) {
 	checkWidget ();
 	if (!(start <= end && 0 <= end)) return "";
 	CText cText = (CText)handle;
-	int length = cText.getText().length();
+	int length = cText.getCharCount();
 	end = Math.min (end, length - 1);
 	start = Math.max (0, start);
 	if(start > end) {
@@ -1187,6 +1207,29 @@ public void setEditable (boolean editable) {
 	((CText)handle).setEditable(editable);
 }
 
+/**
+ * Sets the maximum number of lines that the receiver keeps. When
+ * text is set or appended and the receiver has more lines, the
+ * lines in excess are removed from the start of the text without
+ * sending a verify event. This is meant for multi-line text widgets
+ * that display the tail of a log.
+ * <p>
+ * This method is specific to the Swing implementation. It has no
+ * effect on single line text widgets.
+ * </p>
+ *
+ * @param count the maximum number of lines, or -1 to remove the limit
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ */
+public void setMaximumLineCount (int count) {
+	checkWidget ();
+	((CText)handle).setMaximumLineCount(count);
+}
+
 /**
  * Sets the widget message. The message text is displayed
  * as a hint for the user, indicating the purpose of the field.
@@ -41,6 +41,7 @@ import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.internal.swing.CTree;
 import org.eclipse.swt.internal.swing.CTree.CellPaintEvent;
+import org.eclipse.swt.internal.swing.CTree.PrefetchEvent;
 import org.eclipse.swt.internal.swing.CTreeItem;
 import org.eclipse.swt.internal.swing.DefaultMutableTreeTableNode;
 import org.eclipse.swt.internal.swing.UIThreadUtils;
@@ -101,6 +102,9 @@ public class Tree extends Composite {
 	ArrayList<TreeItem> itemList;
 	ArrayList<TreeColumn> columnList;
 	TreeItem currentItem;
+	int prefetchTopRow;
+	boolean isPrefetchingUp;
+	boolean isColumnWidthAdjustmentPending;
 //	TreeColumn [] columns;
 //	int hwndParent, hwndHeader, hAnchor;
 //	ImageList imageList;
@@ -164,6 +168,11 @@ static int checkStyle (int style) {
 void adjustColumnWidth() {
 	// Could be more efficient. Should post, with coalescing?
 	if(getColumnCount() == 0) {
+		if(drawCount > 0) {
+			/* Measuring renders every row, so it is done once when redraw is turned back on */
+			isColumnWidthAdjustmentPending = true;
+			return;
+		}
 		CTree cTree = (CTree)handle;
 		cTree.getColumnModel().getColumn(0).setPreferredWidth(cTree.getPreferredColumnWidth(0));
 	}
@@ -420,7 +429,7 @@ void createItem (TreeItem item, TreeItem parentItem, int index) {
 	}
 	parentItem.itemList.add(index, item);
 	((MutableTreeNode)parentItem.handle).insert((MutableTreeNode)item.handle, index);
-	((CTree)handle).getModel().nodesWereInserted((MutableTreeNode)parentItem.handle, new int[] {index});
+	((CTree)handle).nodeWasInserted((MutableTreeNode)parentItem.handle, index);
 }
 
 //void createParent () {
@@ -1283,12 +1292,12 @@ void releaseItem (TreeItem treeItem, boolean release) {
 		((CTree)handle).getRoot().remove((MutableTreeNode)treeItem.handle);
 		int index = itemList.indexOf(treeItem);
 		itemList.remove(index);
-		((CTree)handle).getModel().nodesWereRemoved(((CTree)handle).getRoot(), new int[] {index}, new Object[] {treeItem.handle});
+		((CTree)handle).nodeWasRemoved(((CTree)handle).getRoot(), index, (MutableTreeNode)treeItem.handle);
 	} else {
 		((DefaultMutableTreeTableNode)parentItem.handle).remove((MutableTreeNode)treeItem.handle);
 		int index = parentItem.itemList.indexOf(treeItem);
 		parentItem.itemList.remove(index);
-		((CTree)handle).getModel().nodesWereRemoved((DefaultMutableTreeTableNode)parentItem.handle, new int[] {index}, new Object[] {treeItem.handle});
+		((CTree)handle).nodeWasRemoved((DefaultMutableTreeTableNode)parentItem.handle, index, (MutableTreeNode)treeItem.handle);
 	}
 	handle.repaint();
 	if(release) {
@@ -1306,14 +1315,20 @@ void releaseItem (TreeItem treeItem, boolean release) {
  */
 public void removeAll () {
 	checkWidget ();
-	for (int i=itemList.size()-1; i>=0; i--) {
-		TreeItem item = itemList.get(i);
-		if (item != null && !item.isDisposed ()) {
-			item.dispose();
-//			item.release (false);
-		} else {
-			itemList.remove(i);
+	CTree cTree = (CTree)handle;
+	cTree.beginBulkChange();
+	try {
+		for (int i=itemList.size()-1; i>=0; i--) {
+			TreeItem item = itemList.get(i);
+			if (item != null && !item.isDisposed ()) {
+				item.dispose();
+//				item.release (false);
+			} else {
+				itemList.remove(i);
+			}
 		}
+	} finally {
+		cTree.endBulkChange();
 	}
 //	((CTree)handle).getRoot().removeAllChildren();
 }
@@ -1556,6 +1571,18 @@ public void setLinesVisible (boolean show) {
 	((CTree)handle).setGridVisible(show);
 }
 
+void resumeRedraw () {
+	((CTree)handle).endBulkChange();
+	if (isColumnWidthAdjustmentPending) {
+		isColumnWidthAdjustmentPending = false;
+		adjustColumnWidth ();
+	}
+}
+
+void suspendRedraw () {
+	((CTree)handle).beginBulkChange();
+}
+
 //int scrolledHandle () {
 //	if (hwndHeader == 0) return handle;
 //	int count = OS.SendMessage (hwndHeader, OS.HDM_GETITEMCOUNT, 0, 0);
@@ -3648,6 +3675,40 @@ public void processEvent(AWTEvent e) {
 	}
 }
 
+void prefetchItems (int firstRow, int lastRow) {
+	/*
+	* Scrolling usually goes on in the same direction, so the
+	* items beyond the visible ones are requested on the side
+	* the rows are coming from.
+	*/
+	if (firstRow != prefetchTopRow) {
+		isPrefetchingUp = firstRow < prefetchTopRow;
+		prefetchTopRow = firstRow;
+	}
+	if (!checkData (firstRow, lastRow)) return;
+	int count = display.virtualPrefetchCount;
+	if (count == 0) return;
+	if (isPrefetchingUp) {
+		checkData (Math.max (0, firstRow - count), firstRow - 1);
+	} else {
+		checkData (lastRow + 1, lastRow + count);
+	}
+}
+
+boolean checkData (int startRow, int endRow) {
+	CTree cTree = (CTree)handle;
+	for (int i=startRow; i<=endRow; i++) {
+		TreePath path = cTree.getPathForRow (i);
+		if (path == null) break;
+		Object node = path.getLastPathComponent ();
+		if (!(node instanceof CTreeItem)) continue;
+		TreeItem item = ((CTreeItem)node).getTreeItem ();
+		if (item.cached) continue;
+		if (!checkData (item, false)) return false;
+	}
+	return true;
+}
+
 public void processEvent(EventObject e) {
 	if(e instanceof TreeExpansionEvent) {
 		TreePath path = ((TreeExpansionEvent)e).getPath();
@@ -3675,6 +3736,8 @@ public void processEvent(EventObject e) {
 			case CellPaintEvent.MEASURE_TYPE: if(!hooks(SWT.MeasureItem)) { super.processEvent(e); return; } break;
 			default: super.processEvent(e); return;
 			}
+	} else if(e instanceof PrefetchEvent) {
+		if((style & SWT.VIRTUAL) == 0) { super.processEvent(e); return; }
 	} else {
 		super.processEvent(e);
 		return;
@@ -3779,6 +3842,9 @@ public void processEvent(EventObject e) {
 				cellPaintEvent.rowHeight = event.height;
 				break;
 			}
+		} else if(e instanceof PrefetchEvent) {
+			PrefetchEvent prefetchEvent = (PrefetchEvent)e;
+			prefetchItems(prefetchEvent.firstRow, prefetchEvent.lastRow);
 		}
 		super.processEvent(e);
 	} catch(Throwable t) {
@@ -267,7 +267,7 @@ public void clear (int index, boolean all) {
 	treeItemObject.setFont(null);
 	treeItemObject.setIcon(null);
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = false;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 	if(all) {
 		TreeItem[] items = getItems();
 		for(int i=0; i<items.length; i++) {
@@ -322,7 +322,7 @@ public void clearAll (boolean all) {
 		clear(i, all);
 	}
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = false;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 //	int hwnd = parent.handle;
 //	int hItem = OS.SendMessage (hwnd, OS.TVM_GETNEXTITEM, OS.TVGN_CHILD, handle);
 //	if (hItem == 0) return;
@@ -903,7 +903,7 @@ public void setBackground (Color color) {
 	}
 	handle.setBackground(color == null? null: color.handle);
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 	parent.handle.repaint();
 }
 
@@ -935,7 +935,7 @@ public void setBackground (int index, Color color) {
 	if (0 > index || index > count - 1) return;
 	handle.getTreeItemObject(index).setBackground(color == null? null: color.handle);
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 	parent.handle.repaint();
 }
 
@@ -955,7 +955,7 @@ public void setChecked (boolean checked) {
 	if ((parent.style & SWT.CHECK) == 0) return;
 	handle.setChecked(checked);
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 }
 
 /**
@@ -1003,7 +1003,7 @@ public void setFont (Font font){
 		SWT.error (SWT.ERROR_INVALID_ARGUMENT);
 	}
 	handle.setFont(font == null? null: font.handle);
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 	parent.handle.repaint();
 }
 
@@ -1036,7 +1036,7 @@ public void setFont (int index, Font font) {
 	if (0 > index || index > count - 1) return;
 	handle.getTreeItemObject(index).setFont(font == null? null: font.handle);
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 	parent.handle.repaint();
 }
 
@@ -1066,7 +1066,7 @@ public void setForeground (Color color) {
 		SWT.error (SWT.ERROR_INVALID_ARGUMENT);
 	}
 	handle.setForeground(color == null? null: color.handle);
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 	parent.handle.repaint();
 }
 
@@ -1098,7 +1098,7 @@ public void setForeground (int index, Color color){
 	if (0 > index || index > count - 1) return;
 	handle.getTreeItemObject(index).setForeground(color == null? null: color.handle);
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 	parent.handle.repaint();
 }
 
@@ -1118,7 +1118,7 @@ public void setGrayed (boolean grayed) {
 	if ((parent.style & SWT.CHECK) == 0) return;
 	handle.setGrayed(grayed);
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 }
 
 /**
@@ -1186,7 +1186,7 @@ public void setImage (int index, Image image) {
 	}
 	handle.getTreeItemObject(index).setIcon(image != null? new ImageIcon(image.handle): null);
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 }
 
 public void setImage (Image image) {
@@ -1262,7 +1262,7 @@ public void setText (int index, String string) {
 	}
 	handle.getTreeItemObject(index).setText(string);
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
-	((CTree)parent.handle).getModel().nodeChanged((TreeNode)handle);
+	((CTree)parent.handle).nodeChanged((TreeNode)handle);
 	parent.adjustColumnWidth();
 }
 
@@ -80,6 +80,9 @@ public abstract class Widget {
 	static final int RELEASED   = 1<<11;
 	static final int DISPOSE_SENT = 1<<12;
 	
+	/* A layout is scheduled on this composite because it was resized */
+	static final int LAYOUT_SCHEDULED = 1<<13;
+	
 	static final int DRAG_DETECT	= 1<<15;
 
 	/* Bidi "auto" text direction */
@@ -0,0 +1,114 @@
+/*
+ * Christopher Deckers (chrriis@nextencia.net)
+ * http://www.nextencia.net
+ *
+ * See the file "readme.txt" for information on usage and redistribution of
+ * this file, and for a DISCLAIMER OF ALL WARRANTIES.
+ */
+package org.eclipse.swt.graphics;
+
+import java.awt.geom.Area;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compare the banded rectangle lists of Region with java.awt.geom.Area on random sequences of
+ * unions, intersections and subtractions, and check that the lists stay in their canonical form.
+ * Usage: RegionTest [sequenceCount [seed]]
+ * @author Christopher Deckers (chrriis@nextencia.net)
+ */
+public class RegionTest {
+
+	protected static final int MAX_COORDINATE = 64;
+	protected static final int MAX_OPERATION_COUNT = 12;
+
+	public static void main(String[] args) {
+		int sequenceCount = args.length > 0? Integer.parseInt(args[0]): 200000;
+		long seed = args.length > 1? Long.parseLong(args[1]): System.nanoTime();
+		Random random = new Random(seed);
+		for(int i=0; i<sequenceCount; i++) {
+			int[] rects = Region.NO_RECTS;
+			Area area = new Area();
+			StringBuilder sb = new StringBuilder();
+			int operationCount = 1 + random.nextInt(MAX_OPERATION_COUNT);
+			for(int j=0; j<operationCount; j++) {
+				int x = random.nextInt(MAX_COORDINATE) - MAX_COORDINATE / 4;
+				int y = random.nextInt(MAX_COORDINATE) - MAX_COORDINATE / 4;
+				// Empty rectangles are valid arguments too.
+				int width = random.nextInt(MAX_COORDINATE / 2);
+				int height = random.nextInt(MAX_COORDINATE / 2);
+				int op = j == 0? Region.OP_UNION: random.nextInt(3);
+				sb.append(" ").append(op).append(":").append(x).append(",").append(y).append(",").append(width).append(",").append(height);
+				int[] rect = width > 0 && height > 0? new int[] {x, y, x + width, y + height}: Region.NO_RECTS;
+				Area rectArea = new Area(new java.awt.Rectangle(x, y, width, height));
+				rects = Region.combineRects(rects, rect, op);
+				switch(op) {
+					case Region.OP_UNION: area.add(rectArea); break;
+					case Region.OP_INTERSECT: area.intersect(rectArea); break;
+					case Region.OP_SUBTRACT: area.subtract(rectArea); break;
+				}
+				String error = checkCanonical(rects);
+				if(error == null && !new Area(Region.toShape(rects)).equals(area)) {
+					error = "result differs from Area";
+				}
+				if(error != null) {
+					throw new IllegalStateException("Sequence " + i + " (seed " + seed + "):" + sb + " -> " + error + ": " + Arrays.toString(rects));
+				}
+			}
+		}
+		System.out.println(sequenceCount + " sequences match Area (seed " + seed + ")");
+	}
+
+	/**
+	 * @return null if the rectangles are sorted in bands, with no empty rectangle, no overlap, no touching spans
+	 * in a band, and no band that could be merged with the one above it, or the reason why they are not.
+	 */
+	protected static String checkCanonical(int[] rects) {
+		if(rects.length % 4 != 0) {
+			return "length is not a multiple of 4";
+		}
+		int previousBandStart = -1;
+		int previousBandEnd = -1;
+		for(int i=0; i<rects.length; ) {
+			int bandStart = i;
+			int y1 = rects[i + 1];
+			int y2 = rects[i + 3];
+			if(y1 >= y2) {
+				return "empty band at " + i;
+			}
+			for(; i<rects.length && rects[i + 1] == y1; i+=4) {
+				if(rects[i + 3] != y2) {
+					return "band with different heights at " + i;
+				}
+				if(rects[i] >= rects[i + 2]) {
+					return "empty rectangle at " + i;
+				}
+				if(i > bandStart && rects[i] <= rects[i - 2]) {
+					return "overlapping or touching spans at " + i;
+				}
+			}
+			if(previousBandStart != -1) {
+				int previousY2 = rects[previousBandStart + 3];
+				if(previousY2 > y1) {
+					return "overlapping bands at " + bandStart;
+				}
+				if(previousY2 == y1 && Arrays.equals(getSpans(rects, previousBandStart, previousBandEnd), getSpans(rects, bandStart, i))) {
+					return "band that is not merged at " + bandStart;
+				}
+			}
+			previousBandStart = bandStart;
+			previousBandEnd = i;
+		}
+		return null;
+	}
+
+	protected static int[] getSpans(int[] rects, int start, int end) {
+		int[] spans = new int[(end - start) / 2];
+		for(int i=start, j=0; i<end; i+=4) {
+			spans[j++] = rects[i];
+			spans[j++] = rects[i + 2];
+		}
+		return spans;
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Christopher Deckers (chrriis@nextencia.net)
+ * http://www.nextencia.net
+ *
+ * See the file "readme.txt" for information on usage and redistribution of
+ * this file, and for a DISCLAIMER OF ALL WARRANTIES.
+ */
+package org.eclipse.swt.internal.swing;
+
+import java.lang.reflect.InvocationTargetException;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+
+import org.eclipse.swt.SWT;
+
+/**
+ * Replace the items of a list with 100k items, search them and move selections as int arrays,
+ * counting the events that the list sends. The list has no widget, so it runs without a display.
+ * Usage: ListBenchmark [itemCount]
+ * @author Christopher Deckers (chrriis@nextencia.net)
+ */
+public class ListBenchmark {
+
+	protected static int dataEventCount;
+	protected static int selectionEventCount;
+
+	public static void main(String[] args) throws InterruptedException, InvocationTargetException {
+		final int itemCount = args.length > 0? Integer.parseInt(args[0]): 100000;
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				for(int i=0; i<3; i++) {
+					benchmark(itemCount);
+				}
+			}
+		});
+	}
+
+	protected static void benchmark(int itemCount) {
+		CListImplementation cList = new CListImplementation(null, SWT.MULTI);
+		cList.list.getModel().addListDataListener(new ListDataListener() {
+			public void intervalAdded(ListDataEvent e) {
+				dataEventCount++;
+			}
+			public void intervalRemoved(ListDataEvent e) {
+				dataEventCount++;
+			}
+			public void contentsChanged(ListDataEvent e) {
+				dataEventCount++;
+			}
+		});
+		cList.list.addListSelectionListener(new ListSelectionListener() {
+			public void valueChanged(ListSelectionEvent e) {
+				selectionEventCount++;
+			}
+		});
+		Object[] items = new Object[itemCount];
+		for(int i=0; i<itemCount; i++) {
+			// Every tenth item is a duplicate.
+			items[i] = i % 10 == 9? "Duplicate": "Item " + i;
+		}
+		dataEventCount = 0;
+		long start = System.nanoTime();
+		cList.setElements(items);
+		long setTime = System.nanoTime() - start;
+		// There is no widget to notify, and setElements resets the flag.
+		cList.isAdjustingSelection = true;
+		check(cList.getItemCount() == itemCount, "Item count: " + cList.getItemCount());
+		check(dataEventCount == 1, "Data events for setElements: " + dataEventCount);
+		int searchCount = 1000;
+		start = System.nanoTime();
+		for(int i=0; i<searchCount; i++) {
+			int index = (int)((long)i * itemCount / searchCount);
+			if(index % 10 == 9) {
+				index--;
+			}
+			check(cList.indexOf(items[index], 0) == index, "indexOf " + items[index]);
+		}
+		long searchTime = System.nanoTime() - start;
+		int[] indices = new int[itemCount / 3];
+		for(int i=0; i<indices.length; i++) {
+			indices[i] = i * 3;
+		}
+		selectionEventCount = 0;
+		start = System.nanoTime();
+		cList.addSelectionIndices(indices);
+		int[] selectionIndices = cList.getSelectionIndices();
+		long selectTime = System.nanoTime() - start;
+		check(selectionIndices.length == indices.length, "Selection count: " + selectionIndices.length);
+		check(selectionEventCount == 1, "Selection events for addSelectionIndices: " + selectionEventCount);
+		selectionEventCount = 0;
+		start = System.nanoTime();
+		cList.list.clearSelection();
+		cList.setSelectedElements(new Object[] {"Duplicate", items[0]});
+		long selectElementsTime = System.nanoTime() - start;
+		selectionIndices = cList.getSelectionIndices();
+		check(selectionIndices.length == itemCount / 10 + 1, "Selected occurrences: " + selectionIndices.length);
+		check(selectionIndices[0] == 0 && selectionIndices[1] == 9, "First selected occurrences: " + selectionIndices[0] + ", " + selectionIndices[1]);
+		check(selectionEventCount <= 2, "Selection events for setSelectedElements: " + selectionEventCount);
+		System.out.println("List: set " + itemCount + " items in " + setTime / 1000000 + " ms, " + searchCount + " searches in " + searchTime / 1000000 + " ms, select " + indices.length + " indices in " + selectTime / 1000000 + " ms, select " + selectionIndices.length + " occurrences in " + selectElementsTime / 1000000 + " ms");
+	}
+
+	protected static void check(boolean condition, String message) {
+		if(!condition) {
+			throw new IllegalStateException(message);
+		}
+	}
+
+}
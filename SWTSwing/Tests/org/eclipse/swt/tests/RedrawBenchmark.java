@@ -0,0 +1,95 @@
+/*
+ * Christopher Deckers (chrriis@nextencia.net)
+ * http://www.nextencia.net
+ *
+ * See the file "readme.txt" for information on usage and redistribution of
+ * this file, and for a DISCLAIMER OF ALL WARRANTIES.
+ */
+package org.eclipse.swt.tests;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+
+/**
+ * Fill a table and a tree with 100k rows while redraw is turned off, and check that the selection
+ * set inside the redraw scope is kept. The shell is never opened, but it still needs a display.
+ * Usage: RedrawBenchmark [rowCount]
+ * @author Christopher Deckers (chrriis@nextencia.net)
+ */
+public class RedrawBenchmark {
+
+	public static void main(String[] args) {
+		int rowCount = args.length > 0? Integer.parseInt(args[0]): 100000;
+		Display display = new Display();
+		Shell shell = new Shell(display);
+		try {
+			for(int i=0; i<3; i++) {
+				benchmarkTable(shell, rowCount);
+				benchmarkTree(shell, rowCount);
+			}
+		} finally {
+			display.dispose();
+		}
+	}
+
+	protected static void benchmarkTable(Shell shell, int rowCount) {
+		Table table = new Table(shell, SWT.MULTI);
+		long start = System.nanoTime();
+		table.setRedraw(false);
+		for(int i=0; i<rowCount; i++) {
+			new TableItem(table, SWT.NONE).setText("Item " + i);
+		}
+		table.setSelection(rowCount / 2);
+		table.setRedraw(true);
+		long fillTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		table.setRedraw(false);
+		table.removeAll();
+		for(int i=0; i<rowCount; i++) {
+			new TableItem(table, SWT.NONE).setText("Other item " + i);
+		}
+		table.setSelection(0);
+		table.setRedraw(true);
+		long refillTime = System.nanoTime() - start;
+		check(table.getItemCount() == rowCount, "Table item count: " + table.getItemCount());
+		check(table.getSelectionIndex() == 0 && table.getSelectionCount() == 1, "Table selection: " + table.getSelectionIndex());
+		System.out.println("Table: fill " + rowCount + " rows in " + fillTime / 1000000 + " ms, refill in " + refillTime / 1000000 + " ms");
+		table.dispose();
+	}
+
+	protected static void benchmarkTree(Shell shell, int rowCount) {
+		Tree tree = new Tree(shell, SWT.MULTI);
+		long start = System.nanoTime();
+		tree.setRedraw(false);
+		TreeItem expandedItem = null;
+		for(int i=0; i<rowCount; i++) {
+			TreeItem item = new TreeItem(tree, SWT.NONE);
+			item.setText("Item " + i);
+			if(i == 0) {
+				new TreeItem(item, SWT.NONE).setText("Child");
+				item.setExpanded(true);
+				expandedItem = item;
+			}
+		}
+		tree.setSelection(tree.getItem(rowCount / 2));
+		tree.setRedraw(true);
+		long fillTime = System.nanoTime() - start;
+		check(tree.getItemCount() == rowCount, "Tree item count: " + tree.getItemCount());
+		check(expandedItem.getExpanded(), "Tree expanded item collapsed");
+		check(tree.getSelectionCount() == 1 && tree.getSelection()[0] == tree.getItem(rowCount / 2), "Tree selection");
+		System.out.println("Tree: fill " + rowCount + " rows in " + fillTime / 1000000 + " ms");
+		tree.dispose();
+	}
+
+	protected static void check(boolean condition, String message) {
+		if(!condition) {
+			throw new IllegalStateException(message);
+		}
+	}
+
+}